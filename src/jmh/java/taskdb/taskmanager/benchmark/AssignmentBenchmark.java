@@ -0,0 +1,70 @@
+package taskdb.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import taskdb.taskmanager.assignment.AssignmentCandidate;
+import taskdb.taskmanager.assignment.AssignmentPlanner;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskSnapshot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory part of PUT /api/tasks/assign: building the department queues and picking a person for every task.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignmentBenchmark {
+
+    @Param({"5000"})
+    private int persons;
+
+    @Param({"50000"})
+    private int tasks;
+
+    @Param({"1", "50"})
+    private int departments;
+
+    private List<AssignmentCandidate> candidates;
+    private List<TaskSnapshot> idleTasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+
+        candidates = new ArrayList<>(persons);
+        for (int i = 0; i < persons; i++) {
+            int completed = random.nextInt(4) == 0 ? 0 : random.nextInt(1, 200);
+            candidates.add(new AssignmentCandidate((long) i, "DEPT-" + i % departments,
+                    random.nextLong(0, 500), completed > 0 ? random.nextDouble(10, 240) : 0, completed));
+        }
+
+        idleTasks = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            idleTasks.add(TaskSnapshot.builder()
+                    .id((long) i)
+                    .department("dept-" + random.nextInt(departments))
+                    .status(TaskStatus.IDLE)
+                    .duration(random.nextInt(1, 16))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void assignAll(Blackhole blackhole) {
+        AssignmentPlanner planner = new AssignmentPlanner(candidates);
+
+        List<TaskSnapshot> ordered = new ArrayList<>(idleTasks);
+        ordered.sort(Comparator.comparingInt(TaskSnapshot::getDuration).reversed().thenComparing(TaskSnapshot::getId));
+
+        for (TaskSnapshot task : ordered) {
+            blackhole.consume(planner.assign(task.getDepartment(), task.getDuration()));
+        }
+    }
+}
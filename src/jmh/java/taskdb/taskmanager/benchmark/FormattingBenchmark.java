@@ -0,0 +1,76 @@
+package taskdb.taskmanager.benchmark;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import taskdb.taskmanager.controller.TaskController;
+import taskdb.taskmanager.dto.TaskSummaryView;
+import taskdb.taskmanager.repository.TaskRepository;
+import taskdb.taskmanager.service.TaskService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormattingBenchmark {
+
+    @Param({"10", "1000"})
+    private int rows;
+
+    private TaskService taskService;
+    private TaskController taskController;
+
+    @Setup
+    public void setUp() {
+        List<TaskSummaryView> summaries = new ArrayList<>(rows);
+        List<Object[]> report = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            summaries.add(summary("Task " + i, LocalDate.of(2025, 8, 1).plusDays(i), i % 3 == 0 ? null : "Person " + i));
+            report.add(new Object[]{"Department " + i, (long) i, (long) i * 2});
+        }
+
+        TaskRepository taskRepository = Mockito.mock(TaskRepository.class);
+        when(taskRepository.findSummariesOrderByDeadlineDesc()).thenReturn(summaries);
+
+        taskService = new TaskService() {
+            @Override
+            public List<Object[]> getTaskReportRaw() {
+                return report;
+            }
+        };
+        ReflectionTestUtils.setField(taskService, "taskRepository", taskRepository);
+
+        taskController = new TaskController();
+        ReflectionTestUtils.setField(taskController, "taskService", taskService);
+    }
+
+    private static TaskSummaryView summary(String title, LocalDate deadline, String personName) {
+        return new TaskSummaryView() {
+            public String getTitle() { return title; }
+            public LocalDate getDeadline() { return deadline; }
+            public String getPersonName() { return personName; }
+            public Double getPersonAverageTaskDuration() { return personName != null ? 37.5 : null; }
+            public Integer getPersonTotalTasksCompleted() { return personName != null ? 8 : null; }
+        };
+    }
+
+    @Benchmark
+    public List<String> taskSummaries() {
+        return taskService.getTaskSummaries();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> taskReport() {
+        return taskController.getTaskReport();
+    }
+}
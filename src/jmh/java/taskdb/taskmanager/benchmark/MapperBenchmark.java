@@ -0,0 +1,79 @@
+package taskdb.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.mapper.PersonMapper;
+import taskdb.taskmanager.mapper.TaskMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Task task;
+    private TaskDTO taskDTO;
+    private Person person;
+    private PersonDTO personDTO;
+
+    @Setup
+    public void setUp() {
+        person = Person.builder()
+                .id(7L)
+                .name("Alice")
+                .department("IT")
+                .averageTaskDuration(42.5)
+                .totalTasksCompleted(12)
+                .build();
+
+        task = Task.builder()
+                .id(1L)
+                .title("API dev")
+                .description("make a README, with \"quotes\" and, commas")
+                .deadline(LocalDate.of(2025, 8, 1))
+                .department("IT")
+                .duration(4)
+                .status(TaskStatus.ACTIVE)
+                .activeAt(LocalDateTime.of(2025, 7, 1, 9, 0))
+                .assignedPerson(person)
+                .build();
+
+        taskDTO = TaskMapper.toDTO(task);
+        personDTO = PersonMapper.toDTO(person);
+    }
+
+    @Benchmark
+    public TaskDTO taskToDTO() {
+        return TaskMapper.toDTO(task);
+    }
+
+    @Benchmark
+    public Task taskToEntity() {
+        return TaskMapper.toEntity(taskDTO);
+    }
+
+    @Benchmark
+    public String taskToCsvRow() {
+        return TaskMapper.toCsvRow(taskDTO);
+    }
+
+    @Benchmark
+    public PersonDTO personToDTO() {
+        return PersonMapper.toDTO(person);
+    }
+
+    @Benchmark
+    public Person personToEntity() {
+        return PersonMapper.toEntity(personDTO);
+    }
+}
@@ -0,0 +1,83 @@
+package taskdb.taskmanager.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.TaskRepositoryCustomImpl;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// /api/tasks/search on an embedded Postgres migrated by Flyway and seeded with 1M tasks. Titles (3 words)
+// and descriptions (12 words) are drawn from 1000 terms with a skewed distribution: term0 is in ~80% of
+// the tasks, term50 in ~3%, term900 in ~0.5%. Each call asks for one page of 51 hits, like the endpoint.
+// Needs a non-root user, initdb refuses to run as root.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSearchBenchmark {
+
+    private static final int TASKS = 1_000_000;
+    private static final int TERMS = 1000;
+    private static final int DEPARTMENTS = 50;
+    private static final int PAGE = 51;
+
+    @Param({"term0", "term50", "term900", "term50 term900"})
+    public String query;
+
+    private EmbeddedPostgres postgres;
+    private TaskRepositoryCustomImpl repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // building the GIN index once after the load is much faster than maintaining it row by row
+        jdbcTemplate.execute("DROP INDEX idx_task_search");
+        jdbcTemplate.execute("SELECT setseed(0.42)");
+        jdbcTemplate.update("INSERT INTO task (id, title, description, deadline, department, duration, status) " +
+                "SELECT nextval('task_seq'), " +
+                "(SELECT string_agg('term' || floor(power(random(), 3) * ?)::int, ' ') FROM generate_series(1, 3 + g * 0)), " +
+                "(SELECT string_agg('term' || floor(power(random(), 3) * ?)::int, ' ') FROM generate_series(1, 12 + g * 0)), " +
+                "DATE '2024-01-01' + (g % 730), 'Dept ' || (g % ?), 1 + g % 8, " +
+                "CASE g % 20 WHEN 0 THEN 'IDLE' WHEN 1 THEN 'ACTIVE' WHEN 2 THEN 'CANCELLED' ELSE 'COMPLETED' END " +
+                "FROM generate_series(1, ?) g", TERMS, TERMS, DEPARTMENTS, TASKS);
+        jdbcTemplate.execute("CREATE INDEX idx_task_search ON task USING GIN (search_vector)");
+        jdbcTemplate.execute("VACUUM ANALYZE task");
+
+        repository = new TaskRepositoryCustomImpl();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+
+        List<TaskSearchHit> hits = repository.search(query, null, null, null, PAGE);
+        Integer matches = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task " +
+                "WHERE search_vector @@ websearch_to_tsquery('simple', ?)", Integer.class, query);
+        System.out.printf("%n\"%s\": %d matching tasks, first page of %d%n", query, matches, hits.size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<TaskSearchHit> firstPage() {
+        return repository.search(query, null, null, null, PAGE);
+    }
+
+    @Benchmark
+    public List<TaskSearchHit> filteredFirstPage() {
+        return repository.search(query, TaskStatus.IDLE, "dept 7", null, PAGE);
+    }
+}
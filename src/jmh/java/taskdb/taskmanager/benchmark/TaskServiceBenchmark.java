@@ -0,0 +1,122 @@
+package taskdb.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import taskdb.taskmanager.TaskManagerApplication;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+import taskdb.taskmanager.service.TaskCounterService;
+import taskdb.taskmanager.service.TaskService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Runs against the in-memory H2 database configured in src/test/resources.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int PERSONS = 50;
+    private static final int TASKS = 5000;
+    private static final String[] DEPARTMENTS = {"IT", "HR", "SALES", "OPS"};
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private Long personId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=warn")
+                .run();
+
+        taskService = context.getBean(TaskService.class);
+        PersonRepository personRepository = context.getBean(PersonRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(Person.builder().name("Person " + i).department(DEPARTMENTS[i % DEPARTMENTS.length]).build());
+        }
+        persons = personRepository.saveAll(persons);
+        personId = persons.get(0).getId();
+
+        List<Task> tasks = new ArrayList<>();
+        TaskStatus[] statuses = TaskStatus.values();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .deadline(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .department(DEPARTMENTS[i % DEPARTMENTS.length])
+                    .duration(1 + i % 8)
+                    .status(statuses[i % statuses.length])
+                    .assignedPerson(i % 5 == 0 ? null : persons.get(i % PERSONS))
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+        context.getBean(TaskCounterService.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> firstPage() {
+        return taskService.getPage(null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public List<TaskDTO> pendingTasks() {
+        return taskService.getByStatus(TaskStatus.IDLE);
+    }
+
+    @Benchmark
+    public List<TaskDTO> randomPendingTasks() {
+        return taskService.getRandomByStatus(TaskStatus.IDLE, 3);
+    }
+
+    @Benchmark
+    public List<TaskDTO> tasksByDepartment() {
+        return taskService.getTasksByDepartment("it");
+    }
+
+    @Benchmark
+    public List<Object[]> taskReport() {
+        return taskService.getTaskReportRaw();
+    }
+
+    @Benchmark
+    public List<String> taskSummaries() {
+        return taskService.getTaskSummaries();
+    }
+
+    @Benchmark
+    public Optional<Task> createTask() {
+        Task task = Task.builder()
+                .title("Benchmark task")
+                .description("Created by TaskServiceBenchmark")
+                .deadline(LocalDate.of(2025, 12, 31))
+                .department("IT")
+                .duration(2)
+                .status(TaskStatus.IDLE)
+                .build();
+        return taskService.save(task, personId);
+    }
+}
@@ -0,0 +1,75 @@
+package taskdb.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import taskdb.taskmanager.config.WireFormatConfig;
+import taskdb.taskmanager.dto.TaskDTO;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One /api/tasks/all page (500 tasks, each with its own 1000 character description) as JSON and as CBOR,
+// with and without exclude=description. The size of each body is printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final String[] STATUSES = {"IDLE", "ACTIVE", "COMPLETED"};
+    private static final String[] DEPARTMENTS = {"IT", "HR", "FINANCE", "SALES"};
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean excludeDescription;
+
+    private ObjectMapper mapper;
+    private List<TaskDTO> tasks;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = "cbor".equals(format)
+                ? WireFormatConfig.cborMapper(Jackson2ObjectMapperBuilder.json())
+                : Jackson2ObjectMapperBuilder.json().build();
+
+        String text = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(18);
+        tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(TaskDTO.builder()
+                    .id(100_000L + i)
+                    .title("Task " + i)
+                    .description(excludeDescription ? null : (i + " " + text).substring(0, 1000))
+                    .deadline(LocalDate.of(2025, 8, 1).plusDays(i % 60))
+                    .department(DEPARTMENTS[i % DEPARTMENTS.length])
+                    .duration(30 + i % 90)
+                    .status(STATUSES[i % STATUSES.length])
+                    .activeAt(i % 3 == 0 ? null : LocalDateTime.of(2025, 7, 1, 9, 0).plusMinutes(i))
+                    .finishedAt(i % 3 == 2 ? LocalDateTime.of(2025, 7, 2, 17, 0).plusMinutes(i) : null)
+                    .assignedPersonId(i % 5 == 0 ? null : 1000L + i % 50)
+                    .build());
+        }
+
+        body = mapper.writeValueAsBytes(tasks);
+        System.out.printf("%n%s, excludeDescription=%s: %d bytes%n", format, excludeDescription, body.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public TaskDTO[] deserialize() throws IOException {
+        return mapper.readValue(body, TaskDTO[].class);
+    }
+}
@@ -0,0 +1,181 @@
+package taskdb.taskmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import taskdb.taskmanager.TaskManagerApplication;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+// Boots the application once per thread mode and hammers the main read endpoints with a
+// closed loop of concurrent clients. Uses whatever datasource the test classpath points at
+// (in-memory H2) unless spring.datasource.* system properties say otherwise.
+public class LoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 200);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+    private static final int PERSONS = Integer.getInteger("loadtest.persons", 50);
+    private static final int TASKS = Integer.getInteger("loadtest.tasks", 5000);
+    private static final String RESULT = System.getProperty("loadtest.result", "target/loadtest-result.json");
+
+    private static final String[] DEPARTMENTS = {"IT", "HR", "SALES", "OPS"};
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public record Result(String mode, String endpoint, long requests, long errors,
+                         double throughput, double p50Millis, double p99Millis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Result> results = new ArrayList<>(run("classic"));
+
+        if (Runtime.version().feature() >= 21) {
+            results.addAll(run("virtual"));
+        } else {
+            System.out.println("Skipping the virtual thread run, it needs Java 21 (running " + Runtime.version() + ")");
+        }
+
+        System.out.printf("%-8s %-28s %10s %8s %12s %10s %10s%n",
+                "mode", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (Result result : results) {
+            System.out.printf("%-8s %-28s %10d %8d %12.1f %10.2f %10.2f%n",
+                    result.mode(), result.endpoint(), result.requests(), result.errors(),
+                    result.throughput(), result.p50Millis(), result.p99Millis());
+        }
+
+        File resultFile = new File(RESULT);
+        resultFile.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultFile, results);
+        System.out.println("Load test result is saved to " + resultFile.getAbsolutePath());
+    }
+
+    private static List<Result> run(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .properties("server.port=0", "logging.level.root=warn");
+        if (mode.equals("virtual")) {
+            builder.profiles("virtual");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            long personId = seed(baseUrl);
+
+            List<String> endpoints = List.of(
+                    "/api/tasks/all",
+                    "/api/tasks/pending",
+                    "/api/tasks/department/IT",
+                    "/api/persons/all",
+                    "/api/persons/" + personId);
+
+            List<Result> results = new ArrayList<>();
+            for (String endpoint : endpoints) {
+                URI uri = URI.create(baseUrl + endpoint);
+                measure(mode, endpoint, uri, WARMUP);
+                results.add(measure(mode, endpoint, uri, DURATION));
+            }
+            return results;
+        }
+    }
+
+    private static long seed(String baseUrl) throws Exception {
+        long firstPersonId = -1;
+        for (int i = 0; i < PERSONS; i++) {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "name", "Person " + i,
+                    "department", DEPARTMENTS[i % DEPARTMENTS.length]));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/persons"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            if (firstPersonId < 0) {
+                firstPersonId = id;
+            }
+        }
+
+        StringBuilder tasks = new StringBuilder();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.append(objectMapper.writeValueAsString(Map.of(
+                    "title", "Task " + i,
+                    "description", "Load test task " + i,
+                    "deadline", LocalDate.of(2025, 1, 1).plusDays(i % 365).toString(),
+                    "department", DEPARTMENTS[i % DEPARTMENTS.length],
+                    "duration", 1 + i % 8,
+                    "assignedPersonId", firstPersonId + i % PERSONS)))
+                    .append('\n');
+        }
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(tasks.toString()))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        return firstPersonId;
+    }
+
+    private static Result measure(String mode, String endpoint, URI uri, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<long[]>> futures = new ArrayList<>(CONCURRENCY);
+        long[] errors = new long[CONCURRENCY];
+        for (int c = 0; c < CONCURRENCY; c++) {
+            int clientIndex = c;
+            futures.add(clients.submit(() -> {
+                LongStream.Builder latencies = LongStream.builder();
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors[clientIndex]++;
+                        }
+                    } catch (Exception e) {
+                        errors[clientIndex]++;
+                    }
+                    latencies.add(System.nanoTime() - sent);
+                }
+                return latencies.build().toArray();
+            }));
+        }
+
+        List<long[]> perClient = new ArrayList<>(CONCURRENCY);
+        for (Future<long[]> future : futures) {
+            perClient.add(future.get());
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+
+        long[] latencies = perClient.stream().flatMapToLong(LongStream::of).sorted().toArray();
+        return new Result(mode, endpoint, latencies.length, Arrays.stream(errors).sum(),
+                latencies.length / elapsedSeconds, percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
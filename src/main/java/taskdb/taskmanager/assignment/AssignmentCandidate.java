@@ -0,0 +1,17 @@
+package taskdb.taskmanager.assignment;
+
+import lombok.*;
+
+@Value
+@AllArgsConstructor
+@Builder
+
+public class AssignmentCandidate {
+
+    Long personId;
+    String department;
+    long openDuration;
+    double averageTaskDuration;
+    int totalTasksCompleted;
+
+}
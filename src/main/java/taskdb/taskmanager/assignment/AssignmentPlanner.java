@@ -0,0 +1,95 @@
+package taskdb.taskmanager.assignment;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Picks an assignee for each task among the persons of its department.
+ * Every department has a priority queue of its persons ordered by their open work scaled by their pace
+ * (their average task duration against the department's), so one pick is a poll and an offer, O(log p).
+ * Not thread safe, build one per batch.
+ */
+public class AssignmentPlanner {
+
+    // one very fast or very slow history should not take or refuse every task
+    private static final double MIN_PACE = 0.25;
+    private static final double MAX_PACE = 4.0;
+
+    private static final Comparator<Slot> ORDER = Comparator.comparingDouble(Slot::load)
+            .thenComparingDouble(Slot::pace)
+            .thenComparingLong(Slot::personId);
+
+    private final Map<String, PriorityQueue<Slot>> queues = new HashMap<>();
+
+    public AssignmentPlanner(Collection<AssignmentCandidate> candidates) {
+        Map<String, double[]> history = new HashMap<>();
+        for (AssignmentCandidate candidate : candidates) {
+            if (hasHistory(candidate)) {
+                double[] sum = history.computeIfAbsent(key(candidate.getDepartment()), department -> new double[2]);
+                sum[0] += candidate.getAverageTaskDuration();
+                sum[1]++;
+            }
+        }
+
+        for (AssignmentCandidate candidate : candidates) {
+            String department = key(candidate.getDepartment());
+            double[] sum = history.get(department);
+            double pace = hasHistory(candidate) && sum != null
+                    ? Math.min(MAX_PACE, Math.max(MIN_PACE, candidate.getAverageTaskDuration() / (sum[0] / sum[1])))
+                    : 1.0;
+
+            queues.computeIfAbsent(department, d -> new PriorityQueue<>(ORDER))
+                    .add(new Slot(candidate.getPersonId(), candidate.getOpenDuration(), pace));
+        }
+    }
+
+    // Person the task goes to, null when nobody works in its department
+    public Long assign(String department, int duration) {
+        PriorityQueue<Slot> queue = queues.get(key(department));
+        if (queue == null) {
+            return null;
+        }
+
+        Slot slot = queue.poll();
+        slot.openDuration += duration;
+        queue.add(slot);
+        return slot.personId;
+    }
+
+    public static String key(String department) {
+        return department.toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean hasHistory(AssignmentCandidate candidate) {
+        return candidate.getTotalTasksCompleted() > 0 && candidate.getAverageTaskDuration() > 0;
+    }
+
+    private static final class Slot {
+
+        private final long personId;
+        private final double pace;
+        private long openDuration;
+
+        Slot(long personId, long openDuration, double pace) {
+            this.personId = personId;
+            this.openDuration = openDuration;
+            this.pace = pace;
+        }
+
+        long personId() {
+            return personId;
+        }
+
+        double pace() {
+            return pace;
+        }
+
+        double load() {
+            return openDuration * pace;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package taskdb.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CachingConfig {
+
+    public static final String PERSONS = "persons";
+
+    // Puts and evictions are deferred until the surrounding transaction commits,
+    // so a rolled back write never evicts or replaces a good entry.
+    @Bean
+    public CacheManager cacheManager(@Value("${taskmanager.cache.persons.spec:maximumSize=10000,expireAfterWrite=5s,recordStats}") String personsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PERSONS);
+        cacheManager.setCacheSpecification(personsSpec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,31 @@
+package taskdb.taskmanager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import taskdb.taskmanager.outbox.FileTaskOutboxPublisher;
+import taskdb.taskmanager.outbox.InMemoryTaskOutboxPublisher;
+import taskdb.taskmanager.outbox.TaskOutboxPublisher;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    public static final String PUBLISHER = "taskmanager.outbox.publisher";
+
+    @Bean
+    @ConditionalOnProperty(name = PUBLISHER, havingValue = "file", matchIfMissing = true)
+    public TaskOutboxPublisher fileTaskOutboxPublisher(@Value("${taskmanager.outbox.file:outbox/task-changes.ndjson}") Path file,
+                                                       ObjectMapper objectMapper) {
+        return new FileTaskOutboxPublisher(file, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = PUBLISHER, havingValue = "memory")
+    public InMemoryTaskOutboxPublisher inMemoryTaskOutboxPublisher() {
+        return new InMemoryTaskOutboxPublisher();
+    }
+}
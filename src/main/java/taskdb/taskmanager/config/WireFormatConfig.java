@@ -0,0 +1,29 @@
+package taskdb.taskmanager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class WireFormatConfig {
+
+    // Answers Accept: application/cbor (and reads CBOR bodies) with the same mapping as the JSON responses.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cborMapper(builder));
+    }
+
+    // Dates go out as arrays of small numbers instead of ISO strings, Jackson reads both back.
+    // String references (CBORGenerator.Feature.STRINGREF) would nearly halve a page without descriptions
+    // but made reading it ~50% slower in WireFormatBenchmark, and not every CBOR decoder knows them.
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package taskdb.taskmanager.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+// Weak ETags for the GET endpoints: a single resource is tagged with its row version, a list with the
+// change counter of what it shows. If-None-Match is compared weakly, as RFC 9110 asks for GET.
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String ofVersion(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    static String ofChanges(long changes) {
+        return "W/\"changes-" + changes + "\"";
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*") || opaque(candidate).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the body is only built when the client's copy is stale
+    static <T> ResponseEntity<T> respond(String ifNoneMatch, String etag, Supplier<T> body) {
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ok(etag).body(body.get());
+    }
+
+    // JSON and CBOR share the tag, a shared cache has to keep them apart by Accept
+    static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
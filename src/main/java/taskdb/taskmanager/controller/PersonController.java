@@ -1,14 +1,21 @@
 package taskdb.taskmanager.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.PersonWorkloadDTO;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.enums.TaskStatus;
 import taskdb.taskmanager.mapper.PersonMapper;
+import taskdb.taskmanager.service.ChangeCounterService;
 import taskdb.taskmanager.service.PersonService;
+import taskdb.taskmanager.service.PersonWorkloadService;
+import taskdb.taskmanager.service.TaskService;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/persons")
@@ -17,18 +24,27 @@ public class PersonController {
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonWorkloadService personWorkloadService;
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
     @GetMapping("/all")
-    public List<PersonDTO> getAllPersons() {
-        return personService.getAllPersons().stream()
-                .map(PersonMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<PersonDTO>> getAllPersons(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.ofChanges(changeCounterService.getPersonChanges());
+        return ETags.respond(ifNoneMatch, etag, personService::getAllPersons);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PersonDTO> getPersonById(@PathVariable Long id) {
-        return personService.getPersonById(id)
-                .map(PersonMapper::toDTO)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<PersonDTO> getPersonById(@PathVariable Long id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return personService.getPersonSnapshot(id)
+                .map(person -> ETags.respond(ifNoneMatch, ETags.ofVersion(person.getVersion()),
+                        () -> PersonMapper.toDTO(person)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -55,7 +71,7 @@ public class PersonController {
 
     @GetMapping("{id}/bill")
     public ResponseEntity<String> getBill(@PathVariable Long id) {
-        return personService.getPersonById(id)
+        return personService.getPersonSnapshot(id)
                 .map(person -> {
                     String bill = "Person: " + person.getName() + "\n" +
                                   "Department: " + person.getDepartment() + "\n" +
@@ -66,11 +82,42 @@ public class PersonController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/tasks")
+    public ResponseEntity<List<TaskDTO>> getPersonTasks(@PathVariable Long id,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int size,
+                                                        @RequestParam(required = false) TaskStatus status,
+                                                        @RequestParam(required = false) Set<String> exclude,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String etag = ETags.ofChanges(changeCounterService.getTaskChanges());
+        if (personService.getPersonSnapshot(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return TaskPages.respond(cursor, size, ifNoneMatch, etag,
+                (after, limit) -> TaskPages.mask(taskService.getPage(status, null, id, after, limit), exclude));
+    }
+
+    @GetMapping("/{id}/workload")
+    public ResponseEntity<PersonWorkloadDTO> getPersonWorkload(@PathVariable Long id) {
+        return personWorkloadService.getWorkload(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/department/{department}")
-    public List<PersonDTO> getPersonsByDepartment(@PathVariable String department) {
-        return personService.getAllPersons().stream()
-                .filter(person -> department.equalsIgnoreCase(person.getDepartment()))
-                .map(PersonMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<PersonDTO>> getPersonsByDepartment(@PathVariable String department,
+                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.ofChanges(changeCounterService.getPersonChanges());
+        return ETags.respond(ifNoneMatch, etag, () -> personService.findByDepartment(department));
+    }
+
+    @GetMapping("/department/{department}/workload")
+    public List<PersonWorkloadDTO> getDepartmentWorkload(@PathVariable String department) {
+        return personWorkloadService.getWorkloadsByDepartment(department);
     }
 }
\ No newline at end of file
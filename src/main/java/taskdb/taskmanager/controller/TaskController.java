@@ -1,49 +1,269 @@
 package taskdb.taskmanager.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import lombok.RequiredArgsConstructor;
 
+import taskdb.taskmanager.dto.AssignmentResultDTO;
+import taskdb.taskmanager.dto.BulkResultDTO;
+import taskdb.taskmanager.dto.BulkStatusResultDTO;
+import taskdb.taskmanager.dto.TaskAnalyticsDTO;
+import taskdb.taskmanager.dto.TaskAssignmentDTO;
 import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.dto.TaskRollupBackfillDTO;
+import taskdb.taskmanager.dto.TaskSearchCursor;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
 import taskdb.taskmanager.mapper.TaskMapper;
+import taskdb.taskmanager.service.ChangeCounterService;
+import taskdb.taskmanager.service.TaskImportService;
+import taskdb.taskmanager.service.TaskRollupService;
 import taskdb.taskmanager.service.TaskService;
+import taskdb.taskmanager.service.TaskStreamService;
 import taskdb.taskmanager.service.PersonService;
 import taskdb.taskmanager.entity.Task;
 import taskdb.taskmanager.enums.TaskStatus;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.Comparator;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tasks")
 @RequiredArgsConstructor
 public class TaskController {
 
+    static final String NEXT_CURSOR_HEADER = TaskPages.NEXT_CURSOR_HEADER;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final int MAX_SEARCH_LENGTH = 200;
+    private static final int MAX_ANALYTICS_DAYS = 366;
+
     @Autowired
     private TaskService taskService;
 
     @Autowired
     private PersonService personService;
 
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    @Autowired
+    private TaskRollupService taskRollupService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/all")
-    public List<TaskDTO> getAllTasks() {
-        return taskService.getAll().stream()
-                .sorted(Comparator.comparing(Task::getDeadline))
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<TaskDTO>> getAllTasks(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int size,
+                                                     @RequestParam(required = false) TaskStatus status,
+                                                     @RequestParam(required = false) String department,
+                                                     @RequestParam(required = false) Long assigneeId,
+                                                     @RequestParam(required = false) Set<String> exclude,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String etag = ETags.ofChanges(changeCounterService.getTaskChanges());
+        return TaskPages.respond(cursor, size, ifNoneMatch, etag,
+                (after, limit) -> TaskPages.mask(taskService.getPage(status, department, assigneeId, after, limit), exclude));
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<List<TaskDTO>> getOverdueTasks(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(defaultValue = "50") int size,
+                                                         @RequestParam(required = false) Set<String> exclude) {
+        if (!TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return TaskPages.respond(cursor, size, (after, limit) -> TaskPages.mask(taskService.getOverdue(after, limit), exclude));
+    }
+
+    @GetMapping("/due")
+    public ResponseEntity<List<TaskDTO>> getDueTasks(@RequestParam String within,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int size,
+                                                     @RequestParam(required = false) Set<String> exclude) {
+        if (!TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Duration window;
+        try {
+            window = DurationStyle.detectAndParse(within);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (window.isNegative()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return TaskPages.respond(cursor, size,
+                (after, limit) -> TaskPages.mask(taskService.getDueWithin(window, after, limit), exclude));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam String q,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int size,
+                                                     @RequestParam(required = false) TaskStatus status,
+                                                     @RequestParam(required = false) String department,
+                                                     @RequestParam(required = false) Set<String> exclude) {
+        if (q.isBlank() || q.length() > MAX_SEARCH_LENGTH || !TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TaskSearchCursor after;
+        try {
+            after = cursor != null ? TaskSearchCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), TaskPages.MAX_PAGE_SIZE);
+        List<TaskSearchHit> hits = taskService.search(q, status, department, after, pageSize + 1);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hits.size() > pageSize) {
+            hits = hits.subList(0, pageSize);
+            response.header(NEXT_CURSOR_HEADER, hits.get(pageSize - 1).toCursor().encode());
+        }
+
+        List<TaskDTO> tasks = hits.stream().map(TaskSearchHit::getTask).toList();
+        return response.body(TaskPages.mask(tasks, exclude));
+    }
+
+    @GetMapping("/analytics")
+    public ResponseEntity<List<TaskAnalyticsDTO>> getAnalytics(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                               @RequestParam(required = false) String department,
+                                                               @RequestParam(defaultValue = "day") String interval) {
+        ChronoUnit unit = switch (interval.toLowerCase()) {
+            case "hour" -> ChronoUnit.HOURS;
+            case "day" -> ChronoUnit.DAYS;
+            default -> null;
+        };
+        if (unit == null || to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_ANALYTICS_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(taskRollupService.getAnalytics(from, to, department, unit));
+    }
+
+    @PostMapping("/analytics/backfill")
+    public ResponseEntity<TaskRollupBackfillDTO> backfillAnalytics(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(new TaskRollupBackfillDTO(from, to, taskRollupService.backfill(from, to)));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTasks(@RequestParam(required = false) String department,
+                                                  @RequestParam(required = false) Long assigneeId) {
+        return taskStreamService.subscribe(department, assigneeId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(required = false) TaskStatus status,
+                                                             @RequestParam(required = false) String department,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if ("csv".equalsIgnoreCase(format)) {
+            StreamingResponseBody body = outputStream -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                writer.write(TaskMapper.CSV_HEADER);
+                writer.write('\n');
+                taskService.exportTasks(status, department, from, to, task -> {
+                    try {
+                        writer.write(TaskMapper.toCsvRow(task));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.flush();
+            };
+            return ResponseEntity.ok().contentType(TEXT_CSV).body(body);
+        }
+
+        if ("ndjson".equalsIgnoreCase(format)) {
+            ObjectWriter taskWriter = objectMapper.writerFor(TaskDTO.class);
+            StreamingResponseBody body = outputStream -> {
+                OutputStream out = new BufferedOutputStream(outputStream);
+                taskService.exportTasks(status, department, from, to, task -> {
+                    try {
+                        out.write(taskWriter.writeValueAsBytes(task));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.flush();
+            };
+            return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+        }
+
+        return ResponseEntity.badRequest().build();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // revalidating only needs the version, the task is loaded once it changed
+        if (ifNoneMatch != null) {
+            Optional<Long> version = taskService.getVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            String etag = ETags.ofVersion(version.get());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
+        }
+
         return taskService.getById(id)
-                .map(TaskMapper::toDTO)
-                .map(ResponseEntity::ok)
+                .map(task -> ETags.ok(ETags.ofVersion(task.getVersion())).body(TaskMapper.toDTO(task)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -57,6 +277,13 @@ public class TaskController {
                 .orElseThrow(() -> new RuntimeException("Person not found for ID: " + taskDTO.getAssignedPersonId()));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<BulkResultDTO> saveTasks(InputStream body) throws IOException {
+        try (MappingIterator<TaskDTO> rows = objectMapper.readerFor(TaskDTO.class).readValues(body)) {
+            return ResponseEntity.ok(taskImportService.importTasks(rows));
+        }
+    }
+
     @DeleteMapping("/{id}/delete")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
         taskService.delete(id);
@@ -71,6 +298,30 @@ public class TaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PutMapping("/assign")
+    public ResponseEntity<AssignmentResultDTO> assignIdleTasks(@RequestBody TaskAssignmentDTO request) {
+        // without ids or a department every unassigned task would be handed out
+        if ((request.getIds() == null || request.getIds().isEmpty()) && request.getDepartment() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(taskService.assignIdleTasks(request));
+    }
+
+    @PutMapping("/status")
+    public ResponseEntity<BulkStatusResultDTO> updateTaskStatuses(@RequestBody TaskStatusUpdateDTO request) {
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = request.getCurrentStatus() != null || request.getDepartment() != null
+                || request.getAssigneeId() != null;
+
+        // no ids and no filter would change every task
+        if (request.getStatus() == null || (!hasIds && !hasFilter)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(taskService.updateTaskStatuses(request));
+    }
+
     @PutMapping("/{taskId}/status/{status}")
     public ResponseEntity<TaskDTO> updateTaskStatus(@PathVariable Long taskId, @PathVariable TaskStatus status) {
         return taskService.updateTaskStatus(taskId, status)
@@ -80,34 +331,32 @@ public class TaskController {
     }
 
     @GetMapping("/pending")
-    public List<TaskDTO> getPendingTasks() {
-        return taskService.getAll().stream()
-                .filter(task -> task.getStatus() == TaskStatus.IDLE)
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<TaskDTO>> getPendingTasks(@RequestParam(required = false) Set<String> exclude,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String etag = ETags.ofChanges(changeCounterService.getTaskChanges());
+        return ETags.respond(ifNoneMatch, etag, () -> TaskPages.mask(taskService.getByStatus(TaskStatus.IDLE), exclude));
     }
 
     @GetMapping("/pending/rand")
     public List<TaskDTO> geRandtPendingTasks() {
-        List<Task> idleTasks = taskService.getAll().stream()
-                .filter(task -> task.getStatus() == TaskStatus.IDLE)
-                .collect(Collectors.toList());
-
-        Collections.shuffle(idleTasks);
-
-        return idleTasks.stream()
-                .limit(3)
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+        return taskService.getRandomByStatus(TaskStatus.IDLE, 3);
     }
     
 
     @GetMapping("/department/{department}")
-    public List<TaskDTO> getTasksByDepartment(@PathVariable String department) {
-        return taskService.getAll().stream()
-                .filter(task -> department.equalsIgnoreCase(task.getDepartment()))
-                .map(TaskMapper::toDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<List<TaskDTO>> getTasksByDepartment(@PathVariable String department,
+                                                              @RequestParam(required = false) Set<String> exclude,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (!TaskPages.isValidMask(exclude)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String etag = ETags.ofChanges(changeCounterService.getTaskChanges());
+        return ETags.respond(ifNoneMatch, etag, () -> TaskPages.mask(taskService.getTasksByDepartment(department), exclude));
     }
 
 
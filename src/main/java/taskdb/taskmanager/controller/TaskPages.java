@@ -0,0 +1,68 @@
+package taskdb.taskmanager.controller;
+
+import org.springframework.http.ResponseEntity;
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.dto.TaskDTO;
+
+import java.util.List;
+import java.util.Set;
+
+// Keyset paging shared by the task list endpoints: fetches one extra row to know whether
+// there is a next page and hands its cursor back in the X-Next-Cursor header.
+final class TaskPages {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int MAX_PAGE_SIZE = 500;
+    static final String DESCRIPTION = "description";
+    private static final Set<String> MASKABLE_FIELDS = Set.of(DESCRIPTION);
+
+    interface PageQuery {
+        List<TaskDTO> fetch(TaskCursor after, int limit);
+    }
+
+    private TaskPages() {
+    }
+
+    // exclude is the field mask of the task lists, for now only the description can be left out
+    static boolean isValidMask(Set<String> exclude) {
+        return exclude == null || MASKABLE_FIELDS.containsAll(exclude);
+    }
+
+    static List<TaskDTO> mask(List<TaskDTO> tasks, Set<String> exclude) {
+        if (exclude != null && exclude.contains(DESCRIPTION)) {
+            tasks.forEach(task -> task.setDescription(null));
+        }
+        return tasks;
+    }
+
+    static ResponseEntity<List<TaskDTO>> respond(String cursor, int size, PageQuery query) {
+        return respond(cursor, size, null, null, query);
+    }
+
+    // a page tagged with the list's ETag, the query only runs when If-None-Match doesn't match it
+    static ResponseEntity<List<TaskDTO>> respond(String cursor, int size, String ifNoneMatch, String etag,
+                                                 PageQuery query) {
+        if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+            return ETags.notModified(etag);
+        }
+
+        TaskCursor after;
+        try {
+            after = cursor != null ? TaskCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<TaskDTO> tasks = query.fetch(after, pageSize + 1);
+
+        ResponseEntity.BodyBuilder response = etag != null ? ETags.ok(etag) : ResponseEntity.ok();
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            TaskDTO last = tasks.get(pageSize - 1);
+            response.header(NEXT_CURSOR_HEADER, new TaskCursor(last.getDeadline(), last.getId()).encode());
+        }
+
+        return response.body(tasks);
+    }
+}
@@ -0,0 +1,97 @@
+package taskdb.taskmanager.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+/**
+ * Remembers, per client, until when its reads stay on the primary. A write transaction committed while
+ * serving a request hands the client a {@value #COOKIE} cookie with that time (epoch millis), and every
+ * request sending it back reads from the primary until then, so a client that just changed something
+ * reads it back even when the replica has not replayed the change yet. The cookie is the same on every
+ * instance, so it holds behind a load balancer as long as their clocks roughly agree.
+ * Writes made outside of a request (the outbox relay, scheduled rebuilds) belong to no client and never
+ * keep anybody on the primary. The window should be above the usual replication lag; zero sends every
+ * read-only transaction to the replica.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    public static final String COOKIE = "taskmanager-read-primary-until";
+
+    private static final String ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".until";
+
+    private final Duration window;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || window.isZero()) {
+            return;
+        }
+
+        ServletRequestAttributes request = currentRequest();
+        if (request == null) {
+            return;
+        }
+
+        long until = System.currentTimeMillis() + window.toMillis();
+        request.setAttribute(ATTRIBUTE, until, RequestAttributes.SCOPE_REQUEST);
+
+        HttpServletResponse response = request.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+    }
+
+    public boolean recentlyWritten() {
+        ServletRequestAttributes request = currentRequest();
+        if (request == null) {
+            return false;
+        }
+
+        // a write earlier in this same request, or one the client made before
+        Object written = request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        long until = written instanceof Long value ? value : cookieValue(request.getRequest());
+        long now = System.currentTimeMillis();
+        // a cookie never buys more than one window, whatever the client puts in it
+        return now < until && until <= now + window.toMillis();
+    }
+
+    private static long cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Nullable
+    private static ServletRequestAttributes currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes request ? request : null;
+    }
+}
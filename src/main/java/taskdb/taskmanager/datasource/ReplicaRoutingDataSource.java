@@ -0,0 +1,45 @@
+package taskdb.taskmanager.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Where read-only connections come from: the replica, or the primary right after the client wrote and for
+// reads that must not lag (see onPrimary).
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs read-only work that must not see a lagging replica, like filling a cache, on the primary.
+     * The connection is only picked at the first statement, so this has to wrap the statements, not just
+     * the transaction; a read-only transaction that already ran a statement on the replica stays there.
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        boolean outer = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(true);
+        try {
+            return reads.get();
+        } finally {
+            PRIMARY_ONLY.set(outer);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PRIMARY_ONLY.get() || readYourWritesTracker.recentlyWritten() ? Target.PRIMARY : Target.REPLICA;
+    }
+}
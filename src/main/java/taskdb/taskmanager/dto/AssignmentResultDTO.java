@@ -0,0 +1,21 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class AssignmentResultDTO {
+
+    private int assigned;
+    @Builder.Default
+    private List<Long> noCandidate = new ArrayList<>();
+    @Builder.Default
+    private List<Long> notFound = new ArrayList<>();
+
+}
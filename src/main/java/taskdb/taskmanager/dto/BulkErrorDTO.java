@@ -0,0 +1,15 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class BulkErrorDTO {
+
+    private int row;
+    private String message;
+
+}
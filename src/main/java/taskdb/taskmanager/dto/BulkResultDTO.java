@@ -0,0 +1,20 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class BulkResultDTO {
+
+    private int received;
+    private int saved;
+    @Builder.Default
+    private List<BulkErrorDTO> errors = new ArrayList<>();
+
+}
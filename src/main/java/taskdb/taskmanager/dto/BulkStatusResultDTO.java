@@ -0,0 +1,19 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class BulkStatusResultDTO {
+
+    private int updated;
+    @Builder.Default
+    private List<Long> notFound = new ArrayList<>();
+
+}
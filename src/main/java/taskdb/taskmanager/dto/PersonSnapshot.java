@@ -0,0 +1,19 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+// What the person cache keeps: read on its own, never the managed entity, and nothing can change it
+@Value
+@AllArgsConstructor
+@Builder
+
+public class PersonSnapshot {
+
+    Long id;
+    String name;
+    String department;
+    double averageTaskDuration;
+    int totalTasksCompleted;
+    long version;
+
+}
@@ -0,0 +1,21 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class PersonWorkloadDTO {
+
+    private Long personId;
+    private String name;
+    private String department;
+    private long idleTasks;
+    private long activeTasks;
+    private long openDuration;
+    private int completedTasks;
+    private long totalTaskMinutes;
+
+}
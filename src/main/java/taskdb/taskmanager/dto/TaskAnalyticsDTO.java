@@ -0,0 +1,22 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class TaskAnalyticsDTO {
+
+    private LocalDateTime period;
+    private String department;
+    private long started;
+    private long completed;
+    private long cancelled;
+    // activeAt to finishedAt of the tasks completed in the period, null when none of them had been active
+    private Double averageCycleMinutes;
+
+}
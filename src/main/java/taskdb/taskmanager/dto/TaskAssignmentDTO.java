@@ -0,0 +1,17 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class TaskAssignmentDTO {
+
+    private List<Long> ids;
+    private String department;
+
+}
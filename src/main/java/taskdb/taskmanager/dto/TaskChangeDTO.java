@@ -0,0 +1,26 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+
+public class TaskChangeDTO {
+
+    private Long id;
+    private String change;
+    private String department;
+    private String status;
+    private String previousStatus;
+    private LocalDate deadline;
+    private Long assignedPersonId;
+    // the task's version after this change; a DELETED one carries the last version plus one
+    private long version;
+
+}
@@ -1,5 +1,6 @@
 package taskdb.taskmanager.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -16,6 +17,8 @@ public class TaskDTO {
 
     private Long id;
     private String title;
+    // left out of the response when a list is asked for with exclude=description
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
     private LocalDate deadline;
     private String department;
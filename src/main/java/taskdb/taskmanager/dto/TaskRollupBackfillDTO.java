@@ -0,0 +1,18 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class TaskRollupBackfillDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+    private int buckets;
+
+}
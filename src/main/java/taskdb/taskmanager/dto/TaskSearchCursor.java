@@ -0,0 +1,36 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in ranked search results: the rank of the last task returned and its id for ties
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+
+public class TaskSearchCursor {
+
+    private final float rank;
+    private final Long id;
+
+    public String encode() {
+        String raw = rank + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new TaskSearchCursor(Float.parseFloat(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
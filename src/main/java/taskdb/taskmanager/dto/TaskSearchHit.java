@@ -0,0 +1,17 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+@ToString
+
+public class TaskSearchHit {
+
+    private final TaskDTO task;
+    private final float rank;
+
+    public TaskSearchCursor toCursor() {
+        return new TaskSearchCursor(rank, task.getId());
+    }
+}
@@ -0,0 +1,21 @@
+package taskdb.taskmanager.dto;
+
+import lombok.*;
+import taskdb.taskmanager.enums.TaskStatus;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+
+public class TaskStatusUpdateDTO {
+
+    private TaskStatus status;
+    private List<Long> ids;
+    private TaskStatus currentStatus;
+    private String department;
+    private Long assigneeId;
+
+}
@@ -0,0 +1,13 @@
+package taskdb.taskmanager.dto;
+
+import java.time.LocalDate;
+
+public interface TaskSummaryView {
+
+    String getTitle();
+    LocalDate getDeadline();
+    String getPersonName();
+    Double getPersonAverageTaskDuration();
+    Integer getPersonTotalTasksCompleted();
+
+}
@@ -0,0 +1,23 @@
+package taskdb.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Committed changes of the tasks or of the persons, bumped by ChangeCounterService in the writing transaction.
+// A counter is the sum of its slots.
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+
+public class ChangeCounter {
+
+    @EmbeddedId
+    private ChangeCounterId id;
+
+    @Column(nullable = false)
+    private long changes;
+}
@@ -0,0 +1,21 @@
+package taskdb.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class ChangeCounterId implements Serializable {
+
+    @Column(length = 32, nullable = false)
+    private String name;
+
+    // one of ChangeCounterService.SLOTS rows the counter is spread over
+    @Column(nullable = false)
+    private int slot;
+}
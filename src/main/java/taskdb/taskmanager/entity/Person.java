@@ -2,6 +2,7 @@ package taskdb.taskmanager.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,7 +13,6 @@ import java.util.List;
 @Getter
 @Setter
 @ToString
-@EqualsAndHashCode
 @Builder
 
 public class Person {
@@ -27,6 +27,8 @@ public class Person {
     @Column(nullable = false)
     private String department;
 
+    // Never read outside of cascading deletes, page through TaskRepository instead
+    @ToString.Exclude
     @OneToMany(mappedBy = "assignedPerson", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks = new ArrayList<>();
 
@@ -35,4 +37,28 @@ public class Person {
 
     @Column(nullable = true)
     private int totalTasksCompleted = 0;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long totalTaskMinutes;
+
+    // bumped on every write, bulk updates included; the ETag of GET /api/persons/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
+    // Identity only: equal when both are persisted with the same id, stable across
+    // persist and across Hibernate proxies, and never touching the tasks collection.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Person other)) return false;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Person.class.hashCode();
+    }
 }
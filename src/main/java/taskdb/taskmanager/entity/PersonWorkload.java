@@ -0,0 +1,28 @@
+package taskdb.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Open work of one person, kept up to date by PersonWorkloadService on every task change
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+
+public class PersonWorkload {
+
+    @Id
+    private Long personId;
+
+    @Column(nullable = false)
+    private long idleTasks;
+
+    @Column(nullable = false)
+    private long activeTasks;
+
+    @Column(nullable = false)
+    private long openDuration;
+}
@@ -0,0 +1,29 @@
+package taskdb.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Tasks of one department that moved to a status within one hour, kept up to date by TaskRollupService
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+
+public class TaskRollup {
+
+    @EmbeddedId
+    private TaskRollupId id;
+
+    @Column(nullable = false)
+    private long tasks;
+
+    // completed tasks that had been active, and the seconds between activeAt and finishedAt summed over them
+    @Column(nullable = false)
+    private long cycleTasks;
+
+    @Column(nullable = false)
+    private long cycleSeconds;
+}
@@ -0,0 +1,28 @@
+package taskdb.taskmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import taskdb.taskmanager.enums.TaskStatus;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class TaskRollupId implements Serializable {
+
+    // start of the hour
+    @Column(nullable = false)
+    private LocalDateTime bucket;
+
+    // upper-cased, like every department lookup
+    @Column(nullable = false)
+    private String department;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+}
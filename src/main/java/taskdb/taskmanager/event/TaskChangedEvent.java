@@ -0,0 +1,24 @@
+package taskdb.taskmanager.event;
+
+import lombok.*;
+
+/**
+ * Published by the task services whenever a task is created, changed or deleted.
+ * {@code previous} is null for new tasks and {@code current} is null for deleted ones.
+ */
+@Value
+
+public class TaskChangedEvent {
+
+    TaskSnapshot previous;
+    TaskSnapshot current;
+
+    public Long getTaskId() {
+        return current != null ? current.getId() : previous.getId();
+    }
+
+    // the task's version once the change is committed; a delete counts as one more change
+    public long getVersion() {
+        return current != null ? current.getVersion() : previous.getVersion() + 1;
+    }
+}
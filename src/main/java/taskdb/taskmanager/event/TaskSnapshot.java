@@ -0,0 +1,39 @@
+package taskdb.taskmanager.event;
+
+import lombok.*;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Value
+@AllArgsConstructor
+@Builder(toBuilder = true)
+
+public class TaskSnapshot {
+
+    Long id;
+    String department;
+    TaskStatus status;
+    LocalDate deadline;
+    int duration;
+    Long assignedPersonId;
+    LocalDateTime activeAt;
+    LocalDateTime finishedAt;
+    long version;
+
+    public static TaskSnapshot of(Task task) {
+        return TaskSnapshot.builder()
+                .id(task.getId())
+                .department(task.getDepartment())
+                .status(task.getStatus())
+                .deadline(task.getDeadline())
+                .duration(task.getDuration())
+                .assignedPersonId(task.getAssignedPerson() != null ? task.getAssignedPerson().getId() : null)
+                .activeAt(task.getActiveAt())
+                .finishedAt(task.getFinishedAt())
+                .version(task.getVersion())
+                .build();
+    }
+}
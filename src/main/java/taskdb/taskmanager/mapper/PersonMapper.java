@@ -1,6 +1,7 @@
 package taskdb.taskmanager.mapper;
 
 import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.PersonSnapshot;
 import taskdb.taskmanager.entity.Person;
 
 public class PersonMapper {
@@ -18,6 +19,19 @@ public class PersonMapper {
                 .build();
     }
 
+    public static PersonDTO toDTO(PersonSnapshot person) {
+        if (person == null) {
+            return null;
+        }
+        return PersonDTO.builder()
+                .id(person.getId())
+                .name(person.getName())
+                .department(person.getDepartment())
+                .averageTaskDuration(person.getAverageTaskDuration())
+                .totalTasksCompleted(person.getTotalTasksCompleted())
+                .build();
+    }
+
     public static Person toEntity(PersonDTO personDTO) {
         if (personDTO == null) {
             return null;
@@ -1,12 +1,18 @@
 package taskdb.taskmanager.mapper;
 
+import taskdb.taskmanager.dto.TaskChangeDTO;
 import taskdb.taskmanager.dto.TaskDTO;
 import taskdb.taskmanager.entity.Task;
 import taskdb.taskmanager.entity.Person;
 import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
 
 public class TaskMapper {
 
+    public static final String CSV_HEADER =
+            "id,title,description,deadline,department,duration,status,activeAt,finishedAt,assignedPersonId";
+
     public static TaskDTO toDTO(Task task) {
         if (task == null) {
             return null;
@@ -46,4 +52,47 @@ public class TaskMapper {
 
         return builder.build();
     }
+
+    public static TaskChangeDTO toChangeDTO(TaskChangedEvent event) {
+        TaskSnapshot previous = event.getPrevious();
+        TaskSnapshot current = event.getCurrent();
+        TaskSnapshot latest = current != null ? current : previous;
+
+        return TaskChangeDTO.builder()
+                .id(event.getTaskId())
+                .change(previous == null ? "CREATED" : current == null ? "DELETED" : "UPDATED")
+                .department(latest.getDepartment())
+                .status(current != null && current.getStatus() != null ? current.getStatus().name() : null)
+                .previousStatus(previous != null && previous.getStatus() != null ? previous.getStatus().name() : null)
+                .deadline(latest.getDeadline())
+                .assignedPersonId(latest.getAssignedPersonId())
+                .version(event.getVersion())
+                .build();
+    }
+
+    public static String toCsvRow(TaskDTO taskDTO) {
+        return String.join(",",
+                csvField(taskDTO.getId()),
+                csvField(taskDTO.getTitle()),
+                csvField(taskDTO.getDescription()),
+                csvField(taskDTO.getDeadline()),
+                csvField(taskDTO.getDepartment()),
+                csvField(taskDTO.getDuration()),
+                csvField(taskDTO.getStatus()),
+                csvField(taskDTO.getActiveAt()),
+                csvField(taskDTO.getFinishedAt()),
+                csvField(taskDTO.getAssignedPersonId()));
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
 }
@@ -0,0 +1,46 @@
+package taskdb.taskmanager.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Counts the JDBC statements prepared for the current request, by Hibernate and JdbcTemplate alike (see
+// StatementCountingDataSource). The count belongs to the request rather than to the thread: propagate()
+// carries it onto the executor that writes a streamed response.
+public final class StatementCounter {
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    public static void bind(AtomicInteger count) {
+        CURRENT.set(count);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    static void increment() {
+        AtomicInteger count = CURRENT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger count = CURRENT.get();
+        if (count == null) {
+            return task;
+        }
+
+        return () -> {
+            AtomicInteger previous = CURRENT.get();
+            CURRENT.set(count);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
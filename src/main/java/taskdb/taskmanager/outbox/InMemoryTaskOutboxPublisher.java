@@ -0,0 +1,25 @@
+package taskdb.taskmanager.outbox;
+
+import taskdb.taskmanager.entity.TaskOutboxMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keeps everything it was given, for tests and local runs
+public class InMemoryTaskOutboxPublisher implements TaskOutboxPublisher {
+
+    private final List<TaskOutboxMessage> published = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<TaskOutboxMessage> messages) {
+        published.addAll(messages);
+    }
+
+    public synchronized List<TaskOutboxMessage> getPublished() {
+        return new ArrayList<>(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package taskdb.taskmanager.outbox;
+
+import taskdb.taskmanager.entity.TaskOutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the outbox relay hands task changes to. A batch only leaves the outbox once this returns,
+ * so a publisher that throws gets the same batch again on the next poll. Delivery is at least once:
+ * consumers should skip message ids they already saw.
+ * Pick one with {@code taskmanager.outbox.publisher} or declare your own bean and set it to {@code custom}.
+ */
+public interface TaskOutboxPublisher {
+
+    void publish(List<TaskOutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,26 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import taskdb.taskmanager.entity.ChangeCounter;
+import taskdb.taskmanager.entity.ChangeCounterId;
+
+import java.util.Optional;
+
+public interface ChangeCounterRepository extends JpaRepository<ChangeCounter, ChangeCounterId> {
+
+    // one statement, so the slots are summed from a single snapshot
+    @Query("SELECT SUM(c.changes) FROM ChangeCounter c WHERE c.id.name = :name")
+    Optional<Long> findChanges(String name);
+
+    // the pending entity changes go out first, the row stays locked only for the commit that follows
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ChangeCounter c SET c.changes = c.changes + 1 WHERE c.id.name = :name AND c.id.slot = :slot")
+    int increment(String name, int slot);
+
+    // a database the migration did not seed; another transaction creating it first is left alone
+    @Modifying
+    @Query(value = "INSERT INTO change_counter (name, slot, changes) VALUES (:name, :slot, 1) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertFirst(String name, int slot);
+}
@@ -1,10 +1,42 @@
 package taskdb.taskmanager.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.PersonSnapshot;
 import taskdb.taskmanager.entity.Person;
 
 public interface PersonRepository extends JpaRepository<Person, Long> {
-    List<Person> findByDepartment(String department);
+    String PERSON_DTO = "new taskdb.taskmanager.dto.PersonDTO(p.id, p.name, p.department, " +
+        "p.averageTaskDuration, p.totalTasksCompleted)";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Person p WHERE p.id = :id")
+    Optional<Person> findByIdForUpdate(Long id);
+
+    @Query("SELECT new taskdb.taskmanager.dto.PersonSnapshot(p.id, p.name, p.department, " +
+           "p.averageTaskDuration, p.totalTasksCompleted, p.version) FROM Person p WHERE p.id = :id")
+    Optional<PersonSnapshot> findSnapshotById(Long id);
+
+    @Query("SELECT " + PERSON_DTO + " FROM Person p")
+    List<PersonDTO> findAllDTOs();
+
+    @Query("SELECT " + PERSON_DTO + " FROM Person p WHERE UPPER(p.department) = UPPER(:department)")
+    List<PersonDTO> findDTOsByDepartment(String department);
+
+    // the average is taken from the exact sum of minutes every time, so rounding never builds up
+    @Modifying
+    @Query("UPDATE Person p SET " +
+        "p.totalTaskMinutes = p.totalTaskMinutes + :minutes, " +
+        "p.averageTaskDuration = CAST(p.totalTaskMinutes + :minutes AS Double) / (p.totalTasksCompleted + :tasks), " +
+        "p.totalTasksCompleted = p.totalTasksCompleted + :tasks, " +
+        "p.version = p.version + 1 " +
+        "WHERE p.id = :id")
+    int recordCompletions(Long id, int tasks, long minutes);
 }
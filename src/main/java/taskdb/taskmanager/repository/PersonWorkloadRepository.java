@@ -0,0 +1,53 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import taskdb.taskmanager.assignment.AssignmentCandidate;
+import taskdb.taskmanager.dto.PersonWorkloadDTO;
+import taskdb.taskmanager.entity.PersonWorkload;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PersonWorkloadRepository extends JpaRepository<PersonWorkload, Long>, PersonWorkloadRepositoryCustom {
+    // a person without a row has no open task yet
+    String WORKLOAD_DTO = "new taskdb.taskmanager.dto.PersonWorkloadDTO(p.id, p.name, p.department, " +
+        "COALESCE(w.idleTasks, 0L), COALESCE(w.activeTasks, 0L), COALESCE(w.openDuration, 0L), " +
+        "p.totalTasksCompleted, p.totalTaskMinutes)";
+
+    @Query("SELECT " + WORKLOAD_DTO + " FROM Person p LEFT JOIN PersonWorkload w ON w.personId = p.id WHERE p.id = :id")
+    Optional<PersonWorkloadDTO> findDTOById(Long id);
+
+    @Query("SELECT " + WORKLOAD_DTO + " FROM Person p LEFT JOIN PersonWorkload w ON w.personId = p.id " +
+        "WHERE UPPER(p.department) = UPPER(:department) ORDER BY p.id")
+    List<PersonWorkloadDTO> findDTOsByDepartment(String department);
+
+    @Query("SELECT new taskdb.taskmanager.assignment.AssignmentCandidate(p.id, p.department, " +
+        "COALESCE(w.openDuration, 0L), p.averageTaskDuration, p.totalTasksCompleted) " +
+        "FROM Person p LEFT JOIN PersonWorkload w ON w.personId = p.id " +
+        "WHERE UPPER(p.department) IN :departments")
+    List<AssignmentCandidate> findCandidates(Collection<String> departments);
+
+    @Modifying
+    @Query("UPDATE PersonWorkload w SET " +
+        "w.idleTasks = w.idleTasks + :idleTasks, " +
+        "w.activeTasks = w.activeTasks + :activeTasks, " +
+        "w.openDuration = w.openDuration + :openDuration " +
+        "WHERE w.personId = :personId")
+    int applyDelta(Long personId, long idleTasks, long activeTasks, long openDuration);
+
+    // counts the open tasks already in the table, this transaction's included; a row another transaction
+    // created first is left alone and the caller applies its delta to it, a person deleted meanwhile gets none
+    @Modifying
+    @Query(value = "INSERT INTO person_workload (person_id, idle_tasks, active_tasks, open_duration) " +
+        "SELECT :personId, " +
+        "COUNT(*) FILTER (WHERE t.status = 'IDLE'), " +
+        "COUNT(*) FILTER (WHERE t.status = 'ACTIVE'), " +
+        "COALESCE(SUM(t.duration), 0) " +
+        "FROM person p LEFT JOIN task t ON t.person_id = p.id AND t.status IN ('IDLE', 'ACTIVE') " +
+        "WHERE p.id = :personId GROUP BY p.id " +
+        "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertCounted(Long personId);
+}
@@ -0,0 +1,11 @@
+package taskdb.taskmanager.repository;
+
+import taskdb.taskmanager.entity.PersonWorkload;
+
+import java.util.List;
+
+public interface PersonWorkloadRepositoryCustom {
+
+    // Adds every delta to its row in one JDBC batch, returns the rows updated per delta (0 when it has no row yet)
+    int[] applyDeltas(List<PersonWorkload> deltas);
+}
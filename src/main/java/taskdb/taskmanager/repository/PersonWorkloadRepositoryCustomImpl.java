@@ -0,0 +1,37 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import taskdb.taskmanager.entity.PersonWorkload;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class PersonWorkloadRepositoryCustomImpl implements PersonWorkloadRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] applyDeltas(List<PersonWorkload> deltas) {
+        return jdbcTemplate.batchUpdate("UPDATE person_workload SET " +
+                "idle_tasks = idle_tasks + ?, active_tasks = active_tasks + ?, open_duration = open_duration + ? " +
+                "WHERE person_id = ?", new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                PersonWorkload delta = deltas.get(i);
+                statement.setLong(1, delta.getIdleTasks());
+                statement.setLong(2, delta.getActiveTasks());
+                statement.setLong(3, delta.getOpenDuration());
+                statement.setLong(4, delta.getPersonId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import taskdb.taskmanager.entity.TaskOutboxMessage;
+
+import java.util.List;
+
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxMessage, Long> {
+
+    // rows locked by another node's relay are skipped instead of waited for
+    @Query(value = "SELECT * FROM task_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TaskOutboxMessage> claimBatch(@Param("limit") int limit);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM task_outbox)", nativeQuery = true)
+    boolean hasPending();
+}
@@ -1,19 +1,135 @@
 package taskdb.taskmanager.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.dto.TaskSummaryView;
 import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskSnapshot;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    @Query("SELECT t.department, " +
-       "SUM(CASE WHEN t.status = 'FINISHED' THEN 1 ELSE 0 END), " +
-       "SUM(CASE WHEN t.status != 'FINISHED' THEN 1 ELSE 0 END) " +
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    String TASK_DTO = "new taskdb.taskmanager.dto.TaskDTO(t.id, t.title, t.description, t.deadline, t.department, " +
+       "t.duration, CAST(t.status AS String), t.activeAt, t.finishedAt, t.assignedPerson.id)";
+    String TASK_SNAPSHOT = "new taskdb.taskmanager.event.TaskSnapshot(t.id, t.department, t.status, t.deadline, " +
+       "t.duration, t.assignedPerson.id, t.activeAt, t.finishedAt, t.version)";
+    // optional :department filters are cast, Postgres can't tell the type of a null passed to UPPER()
+
+    @Query("SELECT t.department, t.status, COUNT(t) " +
        "FROM Task t " +
-       "GROUP BY t.department")
-    List<Object[]> countTasksByDepartment();
-    List<Task> findAllByOrderByDeadlineDesc();
-    List<Task> findByDepartment(String department);
-}
\ No newline at end of file
+       "GROUP BY t.department, t.status")
+    List<Object[]> countByDepartmentAndStatus();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(Long id);
+
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("SELECT t.id, t.version FROM Task t WHERE t.id IN :ids")
+    List<Object[]> findVersionsByIdIn(Collection<Long> ids);
+
+    // Rows are locked in id order so two bulk updates over the same tasks can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT " + TASK_SNAPSHOT + " FROM Task t WHERE t.id IN :ids ORDER BY t.id")
+    List<TaskSnapshot> findSnapshotsForUpdate(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT " + TASK_SNAPSHOT + " FROM Task t " +
+       "WHERE (:status IS NULL OR t.status = :status) " +
+       "AND (:department IS NULL OR UPPER(t.department) = UPPER(CAST(:department AS String))) " +
+       "AND (:personId IS NULL OR t.assignedPerson.id = :personId) " +
+       "ORDER BY t.id")
+    List<TaskSnapshot> findSnapshotsForUpdate(TaskStatus status, String department, Long personId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT " + TASK_SNAPSHOT + " FROM Task t " +
+       "WHERE t.status = :status AND t.assignedPerson IS NULL " +
+       "AND (:department IS NULL OR UPPER(t.department) = UPPER(CAST(:department AS String))) " +
+       "ORDER BY t.id")
+    List<TaskSnapshot> findUnassignedSnapshotsForUpdate(TaskStatus status, String department);
+
+    // null activeAt/finishedAt keep the current value, same as updating one task
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.version = t.version + 1, " +
+       "t.activeAt = COALESCE(:activeAt, t.activeAt), " +
+       "t.finishedAt = COALESCE(:finishedAt, t.finishedAt) " +
+       "WHERE t.id IN :ids")
+    int updateStatus(Collection<Long> ids, TaskStatus status, LocalDateTime activeAt, LocalDateTime finishedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.assignedPerson.id = :personId")
+    int deleteByAssignedPersonId(Long personId);
+
+    @Query("SELECT " + TASK_DTO + " FROM Task t " +
+       "WHERE (:status IS NULL OR t.status = :status) " +
+       "AND (:department IS NULL OR UPPER(t.department) = UPPER(CAST(:department AS String))) " +
+       "AND (:personId IS NULL OR t.assignedPerson.id = :personId) " +
+       "ORDER BY t.deadline, t.id")
+    List<TaskDTO> findPage(TaskStatus status, String department, Long personId, Pageable pageable);
+
+    // The row comparison is a start key on (deadline, id), so a deep page reads as few rows as the first one.
+    // The deadline bound says the same again for a dialect that would expand the row comparison into ORs.
+    @Query("SELECT " + TASK_DTO + " FROM Task t " +
+       "WHERE (:status IS NULL OR t.status = :status) " +
+       "AND (:department IS NULL OR UPPER(t.department) = UPPER(CAST(:department AS String))) " +
+       "AND (:personId IS NULL OR t.assignedPerson.id = :personId) " +
+       "AND t.deadline >= :deadline AND (t.deadline, t.id) > (:deadline, :id) " +
+       "ORDER BY t.deadline, t.id")
+    List<TaskDTO> findPageAfter(TaskStatus status, String department, Long personId,
+                                LocalDate deadline, Long id, Pageable pageable);
+
+    @Query("SELECT new taskdb.taskmanager.dto.TaskCursor(t.deadline, t.id) FROM Task t WHERE t.status IN :statuses")
+    List<TaskCursor> findOpenDeadlines(Collection<TaskStatus> statuses);
+
+    @Query("SELECT " + TASK_DTO + " FROM Task t WHERE t.id IN :ids AND t.status IN :statuses ORDER BY t.deadline, t.id")
+    List<TaskDTO> findDTOsByIdInAndStatusIn(Collection<Long> ids, Collection<TaskStatus> statuses);
+
+    @Query("SELECT " + TASK_DTO + " FROM Task t WHERE t.status = :status")
+    List<TaskDTO> findDTOsByStatus(TaskStatus status);
+
+    @Query("SELECT " + TASK_DTO + " FROM Task t WHERE t.status = :status ORDER BY t.id")
+    List<TaskDTO> findDTOsByStatus(TaskStatus status, Pageable pageable);
+
+    // one primary key lookup per id
+    @Query("SELECT " + TASK_DTO + " FROM Task t WHERE t.id IN :ids AND t.status = :status")
+    List<TaskDTO> findDTOsByIdInAndStatus(Collection<Long> ids, TaskStatus status);
+
+    @Query("SELECT MAX(t.id) FROM Task t WHERE t.status = :status")
+    Optional<Long> findMaxIdByStatus(TaskStatus status);
+
+    @Query("SELECT " + TASK_DTO + " FROM Task t WHERE UPPER(t.department) = UPPER(:department)")
+    List<TaskDTO> findDTOsByDepartment(String department);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT " + TASK_DTO + " FROM Task t " +
+       "WHERE (:status IS NULL OR t.status = :status) " +
+       "AND (:department IS NULL OR UPPER(t.department) = UPPER(CAST(:department AS String))) " +
+       "AND (:from IS NULL OR t.deadline >= :from) " +
+       "AND (:to IS NULL OR t.deadline <= :to) " +
+       "ORDER BY t.id")
+    Stream<TaskDTO> streamForExport(TaskStatus status, String department, LocalDate from, LocalDate to);
+
+    @Query("SELECT t.title AS title, t.deadline AS deadline, p.name AS personName, " +
+       "p.averageTaskDuration AS personAverageTaskDuration, p.totalTasksCompleted AS personTotalTasksCompleted " +
+       "FROM Task t LEFT JOIN t.assignedPerson p " +
+       "ORDER BY t.deadline DESC")
+    List<TaskSummaryView> findSummariesOrderByDeadlineDesc();
+}
@@ -0,0 +1,17 @@
+package taskdb.taskmanager.repository;
+
+import taskdb.taskmanager.dto.TaskSearchCursor;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.enums.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
+
+public interface TaskRepositoryCustom {
+
+    // One JDBC batch instead of a statement per task or per person
+    void assignPersons(Map<Long, Long> personByTaskId);
+
+    // Postgres only: ranked full-text search over the search_vector column, best match first
+    List<TaskSearchHit> search(String query, TaskStatus status, String department, TaskSearchCursor after, int limit);
+}
@@ -0,0 +1,68 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.dto.TaskSearchCursor;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // websearch_to_tsquery accepts anything a user types ("quoted phrases", or, -word) without syntax errors
+    private static final String SEARCH_HITS = "SELECT t.id, t.title, t.description, t.deadline, t.department, " +
+            "t.duration, t.status, t.active_at, t.finished_at, t.person_id, ts_rank(t.search_vector, q.query) AS rank " +
+            "FROM task t, websearch_to_tsquery('simple', ?) AS q(query) " +
+            "WHERE t.search_vector @@ q.query " +
+            "AND (CAST(? AS varchar) IS NULL OR t.status = ?) " +
+            "AND (CAST(? AS varchar) IS NULL OR UPPER(t.department) = UPPER(?))";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static String searchSql(boolean afterCursor) {
+        return "SELECT * FROM (" + SEARCH_HITS + ") hits " +
+                (afterCursor ? "WHERE rank < ? OR (rank = ? AND id > ?) " : "") +
+                "ORDER BY rank DESC, id LIMIT ?";
+    }
+
+    @Override
+    public void assignPersons(Map<Long, Long> personByTaskId) {
+        jdbcTemplate.batchUpdate("UPDATE task SET person_id = ?, version = version + 1 WHERE id = ?",
+                personByTaskId.entrySet(), BATCH_SIZE, (statement, assignment) -> {
+                    statement.setLong(1, assignment.getValue());
+                    statement.setLong(2, assignment.getKey());
+                });
+    }
+
+    @Override
+    public List<TaskSearchHit> search(String query, TaskStatus status, String department, TaskSearchCursor after, int limit) {
+        String statusName = status != null ? status.name() : null;
+        List<Object> args = new ArrayList<>(Arrays.asList(query, statusName, statusName, department, department));
+        if (after != null) {
+            args.addAll(List.of(after.getRank(), after.getRank(), after.getId()));
+        }
+        args.add(limit);
+
+        return jdbcTemplate.query(searchSql(after != null), (rs, row) -> new TaskSearchHit(new TaskDTO(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getObject("deadline", LocalDate.class),
+                rs.getString("department"),
+                rs.getInt("duration"),
+                rs.getString("status"),
+                rs.getObject("active_at", LocalDateTime.class),
+                rs.getObject("finished_at", LocalDateTime.class),
+                rs.getObject("person_id", Long.class)), rs.getFloat("rank")), args.toArray());
+    }
+}
@@ -0,0 +1,8 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import taskdb.taskmanager.entity.TaskRollup;
+import taskdb.taskmanager.entity.TaskRollupId;
+
+public interface TaskRollupRepository extends JpaRepository<TaskRollup, TaskRollupId>, TaskRollupRepositoryCustom {
+}
@@ -0,0 +1,23 @@
+package taskdb.taskmanager.repository;
+
+import taskdb.taskmanager.dto.TaskAnalyticsDTO;
+import taskdb.taskmanager.entity.TaskRollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+public interface TaskRollupRepositoryCustom {
+
+    // Adds every delta to its row in one JDBC batch, returns the rows updated per delta (0 when it has no row yet)
+    int[] applyDeltas(List<TaskRollup> deltas);
+
+    // Inserts the deltas as new rows, a row another transaction created first is left alone (0 for that delta)
+    int[] insertDeltas(List<TaskRollup> deltas);
+
+    // Buckets in [from, to) summed per hour or per day and department
+    List<TaskAnalyticsDTO> findAnalytics(LocalDateTime from, LocalDateTime to, String department, ChronoUnit interval);
+
+    // Rebuilds the buckets in [from, to) from the timestamps of the tasks, null bounds are open; returns the rows written
+    int backfill(LocalDateTime from, LocalDateTime to);
+}
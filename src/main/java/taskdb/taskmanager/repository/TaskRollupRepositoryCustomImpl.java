@@ -0,0 +1,108 @@
+package taskdb.taskmanager.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import taskdb.taskmanager.dto.TaskAnalyticsDTO;
+import taskdb.taskmanager.entity.TaskRollup;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+public class TaskRollupRepositoryCustomImpl implements TaskRollupRepositoryCustom {
+
+    private static final String RANGE = "(CAST(? AS timestamp) IS NULL OR %1$s >= ?) AND (CAST(? AS timestamp) IS NULL OR %1$s < ?)";
+
+    // same as the V9 migration, one row per transition the task timestamps still show
+    private static final String BACKFILL = "INSERT INTO task_rollup (bucket, department, status, tasks, cycle_tasks, cycle_seconds) " +
+            "SELECT bucket, department, status, COUNT(*), COUNT(cycle_seconds), COALESCE(SUM(cycle_seconds), 0) FROM (" +
+            "SELECT date_trunc('hour', active_at) AS bucket, UPPER(department) AS department, 'ACTIVE' AS status, " +
+            "CAST(NULL AS BIGINT) AS cycle_seconds " +
+            "FROM task WHERE active_at IS NOT NULL AND " + RANGE.formatted("active_at") + " " +
+            "UNION ALL " +
+            "SELECT date_trunc('hour', finished_at), UPPER(department), status, " +
+            "CASE WHEN status = 'COMPLETED' AND active_at IS NOT NULL " +
+            "THEN CAST(FLOOR(EXTRACT(EPOCH FROM finished_at) - EXTRACT(EPOCH FROM active_at)) AS BIGINT) END " +
+            "FROM task WHERE status IN ('COMPLETED', 'CANCELLED') AND finished_at IS NOT NULL AND " +
+            RANGE.formatted("finished_at") +
+            ") transitions GROUP BY bucket, department, status";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static String analyticsSql(ChronoUnit interval) {
+        String period = switch (interval) {
+            case HOURS -> "r.bucket";
+            case DAYS -> "date_trunc('day', r.bucket)";
+            default -> throw new IllegalArgumentException("Unsupported interval: " + interval);
+        };
+
+        return "SELECT " + period + " AS period, r.department, " +
+                "SUM(CASE WHEN r.status = 'ACTIVE' THEN r.tasks ELSE 0 END) AS started, " +
+                "SUM(CASE WHEN r.status = 'COMPLETED' THEN r.tasks ELSE 0 END) AS completed, " +
+                "SUM(CASE WHEN r.status = 'CANCELLED' THEN r.tasks ELSE 0 END) AS cancelled, " +
+                "SUM(r.cycle_tasks) AS cycle_tasks, SUM(r.cycle_seconds) AS cycle_seconds " +
+                "FROM task_rollup r " +
+                // buckets emptied by reopened or deleted tasks, a backfill would not have them
+                "WHERE r.bucket >= ? AND r.bucket < ? AND r.tasks <> 0 " +
+                "AND (CAST(? AS varchar) IS NULL OR r.department = UPPER(?)) " +
+                "GROUP BY " + period + ", r.department " +
+                "ORDER BY period, r.department";
+    }
+
+    @Override
+    public int[] applyDeltas(List<TaskRollup> deltas) {
+        return batch("UPDATE task_rollup SET tasks = tasks + ?, cycle_tasks = cycle_tasks + ?, " +
+                "cycle_seconds = cycle_seconds + ? WHERE bucket = ? AND department = ? AND status = ?", deltas);
+    }
+
+    @Override
+    public int[] insertDeltas(List<TaskRollup> deltas) {
+        return batch("INSERT INTO task_rollup (tasks, cycle_tasks, cycle_seconds, bucket, department, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING", deltas);
+    }
+
+    private int[] batch(String sql, List<TaskRollup> deltas) {
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                TaskRollup delta = deltas.get(i);
+                statement.setLong(1, delta.getTasks());
+                statement.setLong(2, delta.getCycleTasks());
+                statement.setLong(3, delta.getCycleSeconds());
+                statement.setTimestamp(4, Timestamp.valueOf(delta.getId().getBucket()));
+                statement.setString(5, delta.getId().getDepartment());
+                statement.setString(6, delta.getId().getStatus().name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    @Override
+    public List<TaskAnalyticsDTO> findAnalytics(LocalDateTime from, LocalDateTime to, String department, ChronoUnit interval) {
+        return jdbcTemplate.query(analyticsSql(interval), (rs, row) -> {
+            long cycleTasks = rs.getLong("cycle_tasks");
+            return new TaskAnalyticsDTO(
+                    rs.getObject("period", LocalDateTime.class),
+                    rs.getString("department"),
+                    rs.getLong("started"),
+                    rs.getLong("completed"),
+                    rs.getLong("cancelled"),
+                    cycleTasks > 0 ? rs.getLong("cycle_seconds") / 60.0 / cycleTasks : null);
+        }, from, to, department, department);
+    }
+
+    @Override
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        jdbcTemplate.update("DELETE FROM task_rollup WHERE " + RANGE.formatted("bucket"), from, from, to, to);
+        return jdbcTemplate.update(BACKFILL, from, from, to, to, from, from, to, to);
+    }
+}
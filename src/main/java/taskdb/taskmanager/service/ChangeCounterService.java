@@ -0,0 +1,117 @@
+package taskdb.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.repository.ChangeCounterRepository;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts committed changes of tasks and persons in the change_counter table, the collection ETags of the
+ * list endpoints are built from them. A writing transaction bumps each counter it touched once, just before
+ * it commits, so every instance reads the same count and a replica serves the count that goes with the rows
+ * it has. The controllers read it before they query, so a list never goes out under a tag newer than what it
+ * shows. Each counter is spread over {@link #SLOTS} rows and a writer bumps a random one, so writers only
+ * queue behind the few that picked the same row; reading sums the slots. The task bumps committed through
+ * this instance are also counted in memory, so the rest of the count tells what other instances changed.
+ */
+@Service
+public class ChangeCounterService {
+
+    // the workload and rollup writes are ordered before it, so the counter rows are always locked last
+    static final int SYNCHRONIZATION_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    public static final int SLOTS = 16;
+
+    static final String TASKS = "task";
+    static final String PERSONS = "person";
+
+    @Autowired
+    private ChangeCounterRepository changeCounterRepository;
+
+    private final AtomicLong localTaskChanges = new AtomicLong();
+
+    @Transactional(readOnly = true)
+    public long getTaskChanges() {
+        return changeCounterRepository.findChanges(TASKS).orElse(0L);
+    }
+
+    // Own commits are counted in memory before they bump the table, so reading the table first can take off
+    // a commit it did not see yet: the result may come out low, and a view only reloads once more, but never high
+    @Transactional(readOnly = true)
+    public long getOtherTaskChanges() {
+        long changes = getTaskChanges();
+        return changes - localTaskChanges.get();
+    }
+
+    @Transactional(readOnly = true)
+    public long getPersonChanges() {
+        return changeCounterRepository.findChanges(PERSONS).orElse(0L);
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        pendingCounters().add(TASKS);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void personsChanged() {
+        pendingCounters().add(PERSONS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> pendingCounters() {
+        Set<String> counters = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (counters != null) {
+            return counters;
+        }
+
+        // sorted so concurrent transactions lock their rows in the same order
+        Set<String> created = new TreeSet<>();
+        AtomicBoolean countedLocally = new AtomicBoolean();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (created.contains(TASKS)) {
+                    localTaskChanges.incrementAndGet();
+                    countedLocally.set(true);
+                }
+                created.forEach(ChangeCounterService.this::increment);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeCounterService.this);
+                if (status != STATUS_COMMITTED && countedLocally.get()) {
+                    localTaskChanges.decrementAndGet();
+                }
+            }
+
+            @Override
+            public int getOrder() {
+                return SYNCHRONIZATION_ORDER;
+            }
+        });
+        return created;
+    }
+
+    private void increment(String name) {
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        if (changeCounterRepository.increment(name, slot) == 0 && changeCounterRepository.insertFirst(name, slot) == 0) {
+            changeCounterRepository.increment(name, slot);
+        }
+    }
+}
@@ -1,45 +1,125 @@
 package taskdb.taskmanager.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import taskdb.taskmanager.config.CachingConfig;
+import taskdb.taskmanager.datasource.ReplicaRoutingDataSource;
+import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.PersonSnapshot;
 import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
 import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@CacheConfig(cacheNames = CachingConfig.PERSONS)
 public class PersonService {
 
     @Autowired
     private PersonRepository personRepository;
 
-    public List<Person> getAllPersons() {
-        return personRepository.findAll();
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<PersonDTO> getAllPersons() {
+        return personRepository.findAllDTOs();
+    }
+
+    // Every instance caches on its own and only hears of its own writes, so a person changed through another
+    // instance is seen there once the entry expires; keep the TTL (taskmanager.cache.persons.spec) short.
+    // Read from the primary: a lagging replica could put back the row an eviction just dropped, for a whole TTL.
+    @Cacheable(key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<PersonSnapshot> getPersonSnapshot(Long id) {
+        return ReplicaRoutingDataSource.onPrimary(() -> personRepository.findSnapshotById(id));
     }
 
+    // not cached: the caller gets an entity of its own transaction, to assign tasks to or to change
+    @Transactional(readOnly = true)
     public Optional<Person> getPersonById(Long id) {
         return personRepository.findById(id);
     }
 
+    @CacheEvict(key = "#result.id")
+    @Transactional
     public Person savePerson(Person person) {
-        return personRepository.save(person);
+        if (person.getId() != null) {
+            // a save with an id overwrites the person whatever version it is at, an unknown id creates one;
+            // the completion stats are the server's, the request never resets them
+            personRepository.findByIdForUpdate(person.getId()).ifPresentOrElse(existing -> {
+                person.setVersion(existing.getVersion());
+                person.setAverageTaskDuration(existing.getAverageTaskDuration());
+                person.setTotalTasksCompleted(existing.getTotalTasksCompleted());
+                person.setTotalTaskMinutes(existing.getTotalTaskMinutes());
+            }, () -> person.setId(null));
+        }
+
+        Person saved = personRepository.save(person);
+        changeCounterService.personsChanged();
+        return saved;
     }
 
+    // the person's tasks go with it, deleted in one statement but published one by one like any task delete
+    @CacheEvict(key = "#id")
+    @Transactional
     public void deletePerson(Long id) {
-        personRepository.deleteById(id);
+        List<TaskSnapshot> tasks = taskRepository.findSnapshotsForUpdate(null, null, id);
+        if (!tasks.isEmpty()) {
+            taskRepository.deleteByAssignedPersonId(id);
+        }
+        personRepository.findByIdForUpdate(id).ifPresent(personRepository::delete);
+
+        tasks.forEach(task -> eventPublisher.publishEvent(new TaskChangedEvent(task, null)));
+        changeCounterService.personsChanged();
     }
 
+    // Locked: completions bump the version in SQL, an unlocked read could fail the version check on save
+    @CacheEvict(key = "#id")
+    @Transactional
     public Optional<Person> alterData(Long id, Person person) {
-        return personRepository.findById(id).map(existingPerson -> {
+        return personRepository.findByIdForUpdate(id).map(existingPerson -> {
             existingPerson.setName(person.getName());
             existingPerson.setDepartment(person.getDepartment());
-            return personRepository.save(existingPerson);
+            Person saved = personRepository.save(existingPerson);
+            changeCounterService.personsChanged();
+            return saved;
         });
     }
 
-    public List<Person> findByDepartment(String department) {
-        return personRepository.findByDepartment(department);
+    @CacheEvict(key = "#id")
+    @Transactional
+    public void recordCompletion(Long id, long minutes) {
+        personRepository.recordCompletions(id, 1, minutes);
+        changeCounterService.personsChanged();
+    }
+
+    // several tasks of the same person completed at once, minutes is their total
+    @CacheEvict(key = "#id")
+    @Transactional
+    public void recordCompletions(Long id, int tasks, long minutes) {
+        personRepository.recordCompletions(id, tasks, minutes);
+        changeCounterService.personsChanged();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PersonDTO> findByDepartment(String department) {
+        return personRepository.findDTOsByDepartment(department);
     }
 
-}
\ No newline at end of file
+}
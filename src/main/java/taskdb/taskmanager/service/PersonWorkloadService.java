@@ -0,0 +1,122 @@
+package taskdb.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import taskdb.taskmanager.assignment.AssignmentCandidate;
+import taskdb.taskmanager.dto.PersonWorkloadDTO;
+import taskdb.taskmanager.entity.PersonWorkload;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.repository.PersonWorkloadRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Keeps the person_workload rows in step with the tasks. Changes are summed per person while the
+ * transaction runs and written just before it commits, so a bulk change of thousands of tasks still
+ * costs one batch of UPDATEs, one per person. Completed count and minutes already live on the person row.
+ */
+@Service
+public class PersonWorkloadService {
+
+    @Autowired
+    private PersonWorkloadRepository personWorkloadRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<PersonWorkloadDTO> getWorkload(Long personId) {
+        return personWorkloadRepository.findDTOById(personId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PersonWorkloadDTO> getWorkloadsByDepartment(String department) {
+        return personWorkloadRepository.findDTOsByDepartment(department);
+    }
+
+    // persons of the given (upper-cased) departments with their open work, for the assignment planner
+    @Transactional(readOnly = true)
+    public List<AssignmentCandidate> getCandidates(Collection<String> departments) {
+        return personWorkloadRepository.findCandidates(departments);
+    }
+
+    // same transaction as the task change, the workload commits or rolls back with it
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        add(event.getPrevious(), -1);
+        add(event.getCurrent(), 1);
+    }
+
+    private void add(TaskSnapshot task, int sign) {
+        if (task == null || task.getAssignedPersonId() == null || !TaskDeadlineService.OPEN.contains(task.getStatus())) {
+            return;
+        }
+
+        PersonWorkload delta = pendingDeltas().computeIfAbsent(task.getAssignedPersonId(),
+                id -> PersonWorkload.builder().personId(id).build());
+        if (task.getStatus() == TaskStatus.IDLE) {
+            delta.setIdleTasks(delta.getIdleTasks() + sign);
+        } else {
+            delta.setActiveTasks(delta.getActiveTasks() + sign);
+        }
+        delta.setOpenDuration(delta.getOpenDuration() + (long) sign * task.getDuration());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, PersonWorkload> pendingDeltas() {
+        Map<Long, PersonWorkload> deltas = (Map<Long, PersonWorkload>) TransactionSynchronizationManager.getResource(this);
+        if (deltas != null) {
+            return deltas;
+        }
+
+        // sorted so concurrent transactions touch the rows in the same order
+        Map<Long, PersonWorkload> created = new TreeMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PersonWorkloadService.this);
+            }
+
+            // ahead of the change counters, always the last rows a transaction locks
+            @Override
+            public int getOrder() {
+                return ChangeCounterService.SYNCHRONIZATION_ORDER - 1;
+            }
+        });
+        return created;
+    }
+
+    private void apply(Map<Long, PersonWorkload> pending) {
+        List<PersonWorkload> deltas = pending.values().stream()
+                .filter(delta -> delta.getIdleTasks() != 0 || delta.getActiveTasks() != 0 || delta.getOpenDuration() != 0)
+                .toList();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        int[] updated = personWorkloadRepository.applyDeltas(deltas);
+        for (int i = 0; i < updated.length; i++) {
+            PersonWorkload delta = deltas.get(i);
+            // first change of a person that has no row yet: count everything, this transaction included
+            if (updated[i] == 0 && personWorkloadRepository.insertCounted(delta.getPersonId()) == 0) {
+                personWorkloadRepository.applyDelta(delta.getPersonId(), delta.getIdleTasks(),
+                        delta.getActiveTasks(), delta.getOpenDuration());
+            }
+        }
+    }
+}
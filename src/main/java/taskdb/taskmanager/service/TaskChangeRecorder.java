@@ -0,0 +1,124 @@
+package taskdb.taskmanager.service;
+
+import taskdb.taskmanager.event.TaskChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Rebuilds an in-memory view of the tasks from a query while changes keep coming in after their commits.
+ * Changes are recorded from just before the query until the rebuilt view replaces the old one. Those the
+ * query could not see (the version of their task in the same snapshot is older, or the task was created
+ * after it) are replayed on the rebuilt view before it goes live, the others were already counted by the
+ * query. The caller runs the query and the version lookup in one REPEATABLE READ transaction on the primary.
+ * Changes committed through other instances never come in here; the recorder keeps how many of those the
+ * snapshot had, so {@link #isBehind} tells when the shared change counter moved past the view.
+ */
+final class TaskChangeRecorder {
+
+    // keeps IN lists well below the bind parameter limits
+    private static final int VERSION_CHUNK = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Queue<TaskChangedEvent> recorded;
+
+    private volatile long otherChangesSeen;
+
+    // apply runs under the read lock, so a rebuild can't swap views between recording a change and applying it
+    void onChange(TaskChangedEvent event, Consumer<TaskChangedEvent> apply) {
+        lock.readLock().lock();
+        try {
+            Queue<TaskChangedEvent> queue = recorded;
+            if (queue != null) {
+                queue.add(event);
+            }
+            apply.accept(event);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param otherChanges task changes committed through other instances, read first so it is the snapshot's count
+     * @param query        reads the new view
+     * @param versions     {@code [id, version]} rows of the given tasks, read in the same snapshot as the query
+     * @param swap         replays the missed changes, in the order they came, on the new view and makes it the live one
+     */
+    <T> void rebuild(LongSupplier otherChanges, Supplier<T> query, Function<Collection<Long>, List<Object[]>> versions,
+                     BiConsumer<T, List<TaskChangedEvent>> swap) {
+        setRecorded(new ConcurrentLinkedQueue<>());
+        try {
+            long others = otherChanges.getAsLong();
+            T rebuilt = query.get();
+
+            lock.writeLock().lock();
+            try {
+                List<TaskChangedEvent> changes = new ArrayList<>(recorded);
+                swap.accept(rebuilt, missed(changes, snapshotVersions(changes, versions)));
+                otherChangesSeen = others;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setRecorded(null);
+        }
+    }
+
+    boolean isBehind(long otherChanges) {
+        return otherChanges > otherChangesSeen;
+    }
+
+    private void setRecorded(Queue<TaskChangedEvent> queue) {
+        lock.writeLock().lock();
+        try {
+            recorded = queue;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<Long, Long> snapshotVersions(List<TaskChangedEvent> changes,
+                                                    Function<Collection<Long>, List<Object[]>> versions) {
+        List<Long> ids = changes.stream().map(TaskChangedEvent::getTaskId).distinct().toList();
+        Map<Long, Long> snapshot = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += VERSION_CHUNK) {
+            for (Object[] row : versions.apply(ids.subList(from, Math.min(from + VERSION_CHUNK, ids.size())))) {
+                snapshot.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return snapshot;
+    }
+
+    // A task missing from the snapshot was either deleted before it, then its last change is that delete
+    // and nothing is replayed, or created after it, then all its changes are (a create later deleted too
+    // adds up to nothing either way).
+    static List<TaskChangedEvent> missed(List<TaskChangedEvent> changes, Map<Long, Long> snapshot) {
+        Map<Long, TaskChangedEvent> last = new HashMap<>();
+        changes.forEach(change -> last.put(change.getTaskId(), change));
+
+        List<TaskChangedEvent> missed = new ArrayList<>();
+        for (TaskChangedEvent change : changes) {
+            Long version = snapshot.get(change.getTaskId());
+            boolean seen = version != null
+                    ? change.getVersion() <= version
+                    : last.get(change.getTaskId()).getCurrent() == null;
+            if (!seen) {
+                missed.add(change);
+            }
+        }
+        return missed;
+    }
+}
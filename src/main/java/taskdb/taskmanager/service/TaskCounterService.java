@@ -0,0 +1,119 @@
+package taskdb.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Task counts per department and status, kept per instance; other instances' writes reach
+// them through TaskViewSyncService.
+@Service
+public class TaskCounterService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    private final TaskChangeRecorder recorder = new TaskChangeRecorder();
+
+    private volatile ConcurrentMap<String, Map<TaskStatus, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        recorder.onChange(event, change -> apply(counters, change));
+    }
+
+    // true when other instances committed task changes the counts have not seen, see TaskViewSyncService
+    public boolean isBehind(long otherTaskChanges) {
+        return recorder.isBehind(otherTaskChanges);
+    }
+
+    // Changes committed while the counts are read are replayed on top of them, see TaskChangeRecorder
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${taskmanager.counters.reconcile-interval:PT10M}",
+               initialDelayString = "${taskmanager.counters.reconcile-interval:PT10M}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuild() {
+        recorder.rebuild(changeCounterService::getOtherTaskChanges, () -> {
+            ConcurrentMap<String, Map<TaskStatus, LongAdder>> rebuilt = new ConcurrentHashMap<>();
+            for (Object[] row : taskRepository.countByDepartmentAndStatus()) {
+                adjust(rebuilt, (String) row[0], (TaskStatus) row[1], (Long) row[2]);
+            }
+            return rebuilt;
+        }, taskRepository::findVersionsByIdIn, (rebuilt, missed) -> {
+            missed.forEach(change -> apply(rebuilt, change));
+            counters = rebuilt;
+        });
+    }
+
+    public long count(String department, TaskStatus status) {
+        Map<TaskStatus, LongAdder> byStatus = counters.get(department);
+        return byStatus != null ? byStatus.get(status).sum() : 0;
+    }
+
+    public long count(TaskStatus status) {
+        return counters.values().stream().mapToLong(byStatus -> byStatus.get(status).sum()).sum();
+    }
+
+    public List<Object[]> getReport() {
+        Map<String, Map<TaskStatus, LongAdder>> sorted = new TreeMap<>(counters);
+        List<Object[]> report = new ArrayList<>(sorted.size());
+
+        sorted.forEach((department, byStatus) -> {
+            long finished = byStatus.get(TaskStatus.COMPLETED).sum() + byStatus.get(TaskStatus.CANCELLED).sum();
+            long unfinished = byStatus.get(TaskStatus.IDLE).sum() + byStatus.get(TaskStatus.ACTIVE).sum();
+
+            if (finished + unfinished > 0) {
+                report.add(new Object[] {department, finished, unfinished});
+            }
+        });
+
+        return report;
+    }
+
+    private static void apply(ConcurrentMap<String, Map<TaskStatus, LongAdder>> counters, TaskChangedEvent event) {
+        TaskSnapshot previous = event.getPrevious();
+        TaskSnapshot current = event.getCurrent();
+
+        if (previous != null) {
+            adjust(counters, previous.getDepartment(), previous.getStatus(), -1);
+        }
+        if (current != null) {
+            adjust(counters, current.getDepartment(), current.getStatus(), 1);
+        }
+    }
+
+    private static void adjust(ConcurrentMap<String, Map<TaskStatus, LongAdder>> counters,
+                               String department, TaskStatus status, long delta) {
+        if (department == null || status == null) {
+            return;
+        }
+
+        counters.computeIfAbsent(department, key -> {
+            Map<TaskStatus, LongAdder> byStatus = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus value : TaskStatus.values()) {
+                byStatus.put(value, new LongAdder());
+            }
+            return byStatus;
+        }).get(status).add(delta);
+    }
+}
@@ -0,0 +1,128 @@
+package taskdb.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Open (IDLE or ACTIVE) tasks ordered by (deadline, id), so a deadline range is one
+// O(log n) seek plus a walk over the k tasks returned. The index is per instance, other
+// instances' writes reach it through TaskViewSyncService.
+@Service
+public class TaskDeadlineService {
+
+    static final Set<TaskStatus> OPEN = EnumSet.of(TaskStatus.IDLE, TaskStatus.ACTIVE);
+
+    private static final Comparator<TaskCursor> ORDER =
+            Comparator.comparing(TaskCursor::getDeadline).thenComparing(TaskCursor::getId);
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    private final TaskChangeRecorder recorder = new TaskChangeRecorder();
+
+    private volatile NavigableSet<TaskCursor> index = new ConcurrentSkipListSet<>(ORDER);
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        recorder.onChange(event, change -> apply(index, change));
+    }
+
+    // true when other instances committed task changes the index has not seen, see TaskViewSyncService
+    public boolean isBehind(long otherTaskChanges) {
+        return recorder.isBehind(otherTaskChanges);
+    }
+
+    // Changes committed while the open deadlines are read are replayed on top of them, see TaskChangeRecorder
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${taskmanager.deadlines.reconcile-interval:PT10M}",
+               initialDelayString = "${taskmanager.deadlines.reconcile-interval:PT10M}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuild() {
+        recorder.rebuild(changeCounterService::getOtherTaskChanges, () -> {
+            NavigableSet<TaskCursor> rebuilt = new ConcurrentSkipListSet<>(ORDER);
+            rebuilt.addAll(taskRepository.findOpenDeadlines(OPEN));
+            return rebuilt;
+        }, taskRepository::findVersionsByIdIn, (rebuilt, missed) -> {
+            missed.forEach(change -> apply(rebuilt, change));
+            index = rebuilt;
+        });
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // Open tasks with from <= deadline <= to (null for unbounded), after the cursor
+    public List<TaskCursor> find(LocalDate from, LocalDate to, TaskCursor after, int limit) {
+        NavigableSet<TaskCursor> range = index;
+
+        TaskCursor lower = from != null ? new TaskCursor(from, Long.MIN_VALUE) : null;
+        boolean inclusive = true;
+        if (after != null && (lower == null || ORDER.compare(after, lower) >= 0)) {
+            lower = after;
+            inclusive = false;
+        }
+
+        if (to != null) {
+            TaskCursor upper = new TaskCursor(to, Long.MAX_VALUE);
+            if (lower != null && ORDER.compare(lower, upper) > 0) {
+                return List.of();
+            }
+            range = lower != null ? range.subSet(lower, inclusive, upper, true) : range.headSet(upper, true);
+        } else if (lower != null) {
+            range = range.tailSet(lower, inclusive);
+        }
+
+        List<TaskCursor> keys = new ArrayList<>(Math.min(limit, 64));
+        for (TaskCursor key : range) {
+            if (keys.size() == limit) {
+                break;
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    private static void apply(NavigableSet<TaskCursor> index, TaskChangedEvent event) {
+        TaskSnapshot previous = event.getPrevious();
+        TaskSnapshot current = event.getCurrent();
+
+        // assignments and IDLE -> ACTIVE keep the task where it is
+        if (isOpen(previous) && isOpen(current) && previous.getDeadline().equals(current.getDeadline())) {
+            return;
+        }
+
+        if (isOpen(previous)) {
+            index.remove(new TaskCursor(previous.getDeadline(), previous.getId()));
+        }
+        if (isOpen(current)) {
+            index.add(new TaskCursor(current.getDeadline(), current.getId()));
+        }
+    }
+
+    private static boolean isOpen(TaskSnapshot snapshot) {
+        return snapshot != null && snapshot.getDeadline() != null && OPEN.contains(snapshot.getStatus());
+    }
+}
@@ -0,0 +1,198 @@
+package taskdb.taskmanager.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.BulkErrorDTO;
+import taskdb.taskmanager.dto.BulkResultDTO;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.mapper.TaskMapper;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskImportService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_DEPARTMENT_LENGTH = 255;
+
+    @Value("${taskmanager.bulk.batch-size:500}")
+    private int batchSize;
+
+    public BulkResultDTO importTasks(Iterator<TaskDTO> rows) {
+        BulkResultDTO result = new BulkResultDTO();
+        Map<Long, Person> knownPersons = new HashMap<>();
+        Set<Long> missingPersons = new HashSet<>();
+        List<TaskDTO> batch = new ArrayList<>(batchSize);
+        int firstRow = 1;
+        int row = 0;
+
+        while (true) {
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                result.getErrors().add(new BulkErrorDTO(row + 1, "Malformed input: " + e.getMessage()));
+                break;
+            }
+
+            row++;
+            try {
+                batch.add(rows.next());
+            } catch (RuntimeException e) {
+                batch.add(null);
+            }
+
+            if (batch.size() == batchSize) {
+                result.setSaved(result.getSaved() + saveBatch(batch, firstRow, knownPersons, missingPersons, result));
+                batch.clear();
+                firstRow = row + 1;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            result.setSaved(result.getSaved() + saveBatch(batch, firstRow, knownPersons, missingPersons, result));
+        }
+
+        result.setReceived(row);
+        return result;
+    }
+
+    private int saveBatch(List<TaskDTO> batch, int firstRow, Map<Long, Person> knownPersons,
+                          Set<Long> missingPersons, BulkResultDTO result) {
+        List<BulkErrorDTO> errors = new ArrayList<>();
+        Integer saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                resolvePersons(batch, knownPersons, missingPersons);
+
+                List<Task> tasks = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    TaskDTO taskDTO = batch.get(i);
+                    String problem = validate(taskDTO, missingPersons);
+
+                    if (problem == null) {
+                        Task task = TaskMapper.toEntity(taskDTO);
+                        task.setId(null);
+                        if (taskDTO.getAssignedPersonId() != null) {
+                            task.setAssignedPerson(knownPersons.get(taskDTO.getAssignedPersonId()));
+                        }
+                        tasks.add(task);
+                    } else {
+                        errors.add(new BulkErrorDTO(firstRow + i, problem));
+                    }
+                }
+
+                for (Task created : taskRepository.saveAll(tasks)) {
+                    eventPublisher.publishEvent(new TaskChangedEvent(null, TaskSnapshot.of(created)));
+                }
+                taskRepository.flush();
+                entityManager.clear();
+                return tasks.size();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // a row validate() let through; the batch rolled back, saving its rows one by one finds it
+            if (batch.size() == 1) {
+                result.getErrors().add(new BulkErrorDTO(firstRow, "Rejected by the database"));
+                return 0;
+            }
+
+            int savedOneByOne = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                savedOneByOne += saveBatch(List.of(batch.get(i)), firstRow + i, knownPersons, missingPersons, result);
+            }
+            return savedOneByOne;
+        }
+
+        result.getErrors().addAll(errors);
+        return saved != null ? saved : 0;
+    }
+
+    private void resolvePersons(List<TaskDTO> batch, Map<Long, Person> knownPersons, Set<Long> missingPersons) {
+        Set<Long> unknownIds = batch.stream()
+                .filter(Objects::nonNull)
+                .map(TaskDTO::getAssignedPersonId)
+                .filter(Objects::nonNull)
+                .filter(id -> !knownPersons.containsKey(id) && !missingPersons.contains(id))
+                .collect(Collectors.toSet());
+
+        if (unknownIds.isEmpty()) {
+            return;
+        }
+
+        for (Person person : personRepository.findAllById(unknownIds)) {
+            knownPersons.put(person.getId(), person);
+        }
+        unknownIds.stream()
+                .filter(id -> !knownPersons.containsKey(id))
+                .forEach(missingPersons::add);
+    }
+
+    // every column constraint of the task table, one bad row must not fail the batch it is in
+    private String validate(TaskDTO taskDTO, Set<Long> missingPersons) {
+        if (taskDTO == null) {
+            return "Malformed task";
+        }
+        if (taskDTO.getTitle() == null || taskDTO.getDescription() == null
+                || taskDTO.getDeadline() == null || taskDTO.getDepartment() == null) {
+            return "title, description, deadline and department are required";
+        }
+        if (taskDTO.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "title is longer than " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (taskDTO.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (taskDTO.getDepartment().length() > MAX_DEPARTMENT_LENGTH) {
+            return "department is longer than " + MAX_DEPARTMENT_LENGTH + " characters";
+        }
+        if (taskDTO.getDuration() < 0) {
+            return "duration can't be negative";
+        }
+        if (taskDTO.getStatus() != null && Arrays.stream(TaskStatus.values()).noneMatch(status -> status.name().equals(taskDTO.getStatus()))) {
+            return "Invalid status: " + taskDTO.getStatus();
+        }
+        if (taskDTO.getAssignedPersonId() != null && missingPersons.contains(taskDTO.getAssignedPersonId())) {
+            return "Person not found for ID: " + taskDTO.getAssignedPersonId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package taskdb.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.TaskChangeDTO;
+import taskdb.taskmanager.entity.TaskOutboxMessage;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.mapper.TaskMapper;
+import taskdb.taskmanager.outbox.TaskOutboxPublisher;
+import taskdb.taskmanager.repository.TaskOutboxRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records every task change in the task_outbox table inside the transaction that made it, and relays
+ * the table to the {@link TaskOutboxPublisher} in id order. Each poll claims a batch with
+ * FOR UPDATE SKIP LOCKED, so several instances can relay at once without publishing the same row twice.
+ * Ids come from a pooled sequence, so they follow neither commit order nor the order between instances:
+ * the order of one task's changes is the {@code version} in their payload, consumers keep the highest
+ * they saw per task and drop anything at or below it.
+ */
+@Service
+public class TaskOutboxService {
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private TaskOutboxPublisher taskOutboxPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${taskmanager.outbox.batch-size:500}")
+    private int batchSize;
+
+    // MANDATORY: a change published outside a transaction would make the outbox a dual write again
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TaskChangeDTO change = TaskMapper.toChangeDTO(event);
+
+        try {
+            taskOutboxRepository.save(TaskOutboxMessage.builder()
+                    .taskId(change.getId())
+                    .changeType(change.getChange())
+                    .payload(objectMapper.writeValueAsString(change))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.outbox.poll-interval:PT1S}",
+               initialDelayString = "${taskmanager.outbox.poll-interval:PT1S}")
+    public int relay() {
+        int relayed = 0;
+        int batch;
+        do {
+            batch = relayBatch();
+            relayed += batch;
+        } while (batch == batchSize);
+        return relayed;
+    }
+
+    private int relayBatch() {
+        // most polls find nothing: finding that out takes no row locks and commits no write
+        if (!hasPending()) {
+            return 0;
+        }
+
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<TaskOutboxMessage> messages = taskOutboxRepository.claimBatch(batchSize);
+            if (messages.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                taskOutboxPublisher.publish(messages);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            taskOutboxRepository.deleteAllByIdInBatch(messages.stream().map(TaskOutboxMessage::getId).toList());
+            return messages.size();
+        });
+
+        return relayed != null ? relayed : 0;
+    }
+
+    private boolean hasPending() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return Boolean.TRUE.equals(readOnly.execute(status -> taskOutboxRepository.hasPending()));
+    }
+}
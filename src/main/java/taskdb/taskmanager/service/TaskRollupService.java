@@ -0,0 +1,158 @@
+package taskdb.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import taskdb.taskmanager.dto.TaskAnalyticsDTO;
+import taskdb.taskmanager.entity.TaskRollup;
+import taskdb.taskmanager.entity.TaskRollupId;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.repository.TaskRollupRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the hourly task_rollup buckets in step with the tasks, so throughput and cycle time are answered
+ * without scanning them. A task counts as started in the hour of its activeAt, and as COMPLETED/CANCELLED
+ * in the hour of its finishedAt while it has that status. Every change takes the buckets of the previous
+ * state out and puts those of the new one in, so the rollup always shows what the task rows show, exactly
+ * what a backfill rebuilds: a task reopened or deleted leaves its earlier buckets. Like the workload, the
+ * changes of a transaction are summed and written just before it commits.
+ */
+@Service
+public class TaskRollupService {
+
+    // the order concurrent transactions touch the rows in
+    private static final Comparator<TaskRollupId> BUCKET_ORDER = Comparator.comparing(TaskRollupId::getBucket)
+            .thenComparing(TaskRollupId::getDepartment)
+            .thenComparing(TaskRollupId::getStatus);
+
+    @Autowired
+    private TaskRollupRepository taskRollupRepository;
+
+    // to is inclusive, like the other date ranges of the API
+    @Transactional(readOnly = true)
+    public List<TaskAnalyticsDTO> getAnalytics(LocalDate from, LocalDate to, String department, ChronoUnit interval) {
+        return taskRollupRepository.findAnalytics(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), department, interval);
+    }
+
+    // rebuilds the buckets of the range from the tasks still in the table, the whole history without bounds
+    @Transactional
+    public int backfill(LocalDate from, LocalDate to) {
+        return taskRollupRepository.backfill(from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null);
+    }
+
+    // same transaction as the task change, the buckets commit or roll back with it
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTaskChanged(TaskChangedEvent event) {
+        add(event.getPrevious(), -1);
+        add(event.getCurrent(), 1);
+    }
+
+    // the buckets the timestamps of the task fall in, the ones the backfill counts it in
+    private void add(TaskSnapshot task, int sign) {
+        if (task == null) {
+            return;
+        }
+
+        if (task.getActiveAt() != null) {
+            TaskRollup started = delta(task.getActiveAt(), task.getDepartment(), TaskStatus.ACTIVE);
+            started.setTasks(started.getTasks() + sign);
+        }
+
+        TaskStatus status = task.getStatus();
+        if ((status == TaskStatus.COMPLETED || status == TaskStatus.CANCELLED) && task.getFinishedAt() != null) {
+            TaskRollup finished = delta(task.getFinishedAt(), task.getDepartment(), status);
+            finished.setTasks(finished.getTasks() + sign);
+            if (status == TaskStatus.COMPLETED && task.getActiveAt() != null) {
+                finished.setCycleTasks(finished.getCycleTasks() + sign);
+                finished.setCycleSeconds(finished.getCycleSeconds()
+                        + sign * Duration.between(task.getActiveAt(), task.getFinishedAt()).toSeconds());
+            }
+        }
+    }
+
+    private TaskRollup delta(LocalDateTime at, String department, TaskStatus status) {
+        TaskRollupId id = new TaskRollupId(at.truncatedTo(ChronoUnit.HOURS), department.toUpperCase(Locale.ROOT), status);
+        return pendingDeltas().computeIfAbsent(id, key -> TaskRollup.builder().id(key).build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<TaskRollupId, TaskRollup> pendingDeltas() {
+        Map<TaskRollupId, TaskRollup> deltas = (Map<TaskRollupId, TaskRollup>) TransactionSynchronizationManager.getResource(this);
+        if (deltas != null) {
+            return deltas;
+        }
+
+        Map<TaskRollupId, TaskRollup> created = new TreeMap<>(BUCKET_ORDER);
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TaskRollupService.this);
+            }
+
+            // ahead of the change counters, always the last rows a transaction locks
+            @Override
+            public int getOrder() {
+                return ChangeCounterService.SYNCHRONIZATION_ORDER - 1;
+            }
+        });
+        return created;
+    }
+
+    private void apply(Map<TaskRollupId, TaskRollup> pending) {
+        // an assignment or an edit leaves the timestamps alone, its buckets cancel out
+        List<TaskRollup> deltas = pending.values().stream()
+                .filter(delta -> delta.getTasks() != 0 || delta.getCycleTasks() != 0 || delta.getCycleSeconds() != 0)
+                .toList();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        int[] updated = taskRollupRepository.applyDeltas(deltas);
+        List<TaskRollup> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(deltas.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // first change in a bucket; when another transaction created the row in between, add to it instead
+        int[] inserted = taskRollupRepository.insertDeltas(missing);
+        List<TaskRollup> raced = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == 0) {
+                raced.add(missing.get(i));
+            }
+        }
+        if (!raced.isEmpty()) {
+            taskRollupRepository.applyDeltas(raced);
+        }
+    }
+}
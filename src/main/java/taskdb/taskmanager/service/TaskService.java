@@ -1,39 +1,167 @@
 package taskdb.taskmanager.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import taskdb.taskmanager.assignment.AssignmentPlanner;
+import taskdb.taskmanager.dto.AssignmentResultDTO;
+import taskdb.taskmanager.dto.BulkStatusResultDTO;
+import taskdb.taskmanager.dto.TaskAssignmentDTO;
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.dto.TaskSearchCursor;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
 import taskdb.taskmanager.entity.Person;
 import taskdb.taskmanager.entity.Task;
 import taskdb.taskmanager.enums.TaskStatus;
-import taskdb.taskmanager.repository.TaskRepository;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
 import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
 
+    public static final String COMPLETION_TIMER = "taskmanager.task.completion";
+
+    // keeps IN lists well below the bind parameter limits
+    private static final int STATUS_UPDATE_CHUNK = 1000;
+    private static final int RANDOM_BATCH = 1000;
+    private static final int RANDOM_ROUNDS = 4;
+    private static final int RANDOM_ATTEMPTS_PER_TASK = 4;
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private PersonService personService;
+
     @Autowired
     private PersonRepository personRepository;
 
+    @Autowired
+    private PersonWorkloadService personWorkloadService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskDeadlineService taskDeadlineService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
     public List<Task> getAll() {
         return taskRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getPage(TaskStatus status, String department, Long personId, TaskCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+
+        if (after == null) {
+            return taskRepository.findPage(status, department, personId, limit);
+        }
+
+        return taskRepository.findPageAfter(status, department, personId, after.getDeadline(), after.getId(), limit);
+    }
+
+    // ranked by ts_rank over title (weight A) and description (weight B); runs on the replica when there is one
+    @Transactional(readOnly = true)
+    public List<TaskSearchHit> search(String query, TaskStatus status, String department, TaskSearchCursor after, int limit) {
+        return taskRepository.search(query, status, department, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportTasks(TaskStatus status, String department, LocalDate from, LocalDate to,
+                            Consumer<TaskDTO> consumer) {
+        try (Stream<TaskDTO> tasks = taskRepository.streamForExport(status, department, from, to)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getOverdue(TaskCursor after, int limit) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        return findOpen(null, yesterday, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getDueWithin(Duration within, TaskCursor after, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return findOpen(now.toLocalDate(), now.plus(within).toLocalDate(), after, limit);
+    }
+
+    // The index follows commits, so some of its tasks can be deleted or closed by now: those are
+    // skipped and the page is filled from further down the range.
+    private List<TaskDTO> findOpen(LocalDate from, LocalDate to, TaskCursor after, int limit) {
+        List<TaskDTO> tasks = new ArrayList<>();
+        TaskCursor cursor = after;
+        while (tasks.size() < limit) {
+            int wanted = limit - tasks.size();
+            List<TaskCursor> keys = taskDeadlineService.find(from, to, cursor, wanted);
+            if (keys.isEmpty()) {
+                break;
+            }
+
+            tasks.addAll(taskRepository.findDTOsByIdInAndStatusIn(
+                    keys.stream().map(TaskCursor::getId).toList(), TaskDeadlineService.OPEN));
+            if (keys.size() < wanted) {
+                break;
+            }
+            cursor = keys.get(keys.size() - 1);
+        }
+        return tasks;
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Task> getById(Long id) {
         return taskRepository.findById(id);
     }
 
+    // enough to answer an If-None-Match without loading the task
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return taskRepository.findVersionById(id);
+    }
+
+    @Transactional
     public Optional<Task> save(Task task, Long personId) {
         if (personId != null) {
-            Optional<Person> personOpt = personRepository.findById(personId);
+            Optional<Person> personOpt = personReference(personId);
 
             if (personOpt.isEmpty()) {
                 return Optional.empty();
@@ -42,28 +170,61 @@ public class TaskService {
             task.setAssignedPerson(personOpt.get());
         }
 
-        return Optional.of(taskRepository.save(task));
+        TaskSnapshot previous = null;
+        if (task.getId() != null) {
+            Optional<Task> existing = taskRepository.findByIdForUpdate(task.getId());
+            // a POST with an id overwrites the task whatever version it is at, an unknown id creates one
+            existing.ifPresentOrElse(current -> task.setVersion(current.getVersion()), () -> task.setId(null));
+            previous = existing.map(TaskSnapshot::of).orElse(null);
+        }
+
+        Task saved = taskRepository.save(task);
+        // the version is only bumped when the update is flushed, and the change is published with it
+        taskRepository.flush();
+        eventPublisher.publishEvent(new TaskChangedEvent(previous, TaskSnapshot.of(saved)));
+
+        return Optional.of(saved);
     }
 
+    // checked against the person cache, the task only needs the id to point at
+    private Optional<Person> personReference(Long personId) {
+        return personService.getPersonSnapshot(personId)
+                .map(person -> personRepository.getReferenceById(person.getId()));
+    }
+
+    @Transactional
     public void delete(Long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findByIdForUpdate(id).ifPresent(task -> {
+            taskRepository.delete(task);
+            eventPublisher.publishEvent(new TaskChangedEvent(TaskSnapshot.of(task), null));
+        });
     }
 
+    // Locked like updateTaskStatus: the bulk updates bump the version in SQL, an unlocked read could be
+    // stale by the time it is saved and fail the version check
+    @Transactional
     public Optional<Task> updateAssignedPerson(Long taskId, Long personId) {
-        Optional<Task> taskOpt = taskRepository.findById(taskId);
-        Optional<Person> personOpt = personRepository.findById(personId);
+        Optional<Task> taskOpt = taskRepository.findByIdForUpdate(taskId);
+        Optional<Person> personOpt = personReference(personId);
 
         if (taskOpt.isEmpty() || personOpt.isEmpty()) return Optional.empty();
 
         Task task = taskOpt.get();
+        TaskSnapshot previous = TaskSnapshot.of(task);
         task.setAssignedPerson(personOpt.get());
 
-        return Optional.of(taskRepository.save(task));
+        Task saved = taskRepository.save(task);
+        taskRepository.flush();
+        eventPublisher.publishEvent(new TaskChangedEvent(previous, TaskSnapshot.of(saved)));
+
+        return Optional.of(saved);
     }
 
+    @Transactional
     public Optional<Task> updateTaskStatus(Long taskId, TaskStatus status) {
         
-        return taskRepository.findById(taskId).map(task -> {
+        return taskRepository.findByIdForUpdate(taskId).map(task -> {
+            TaskSnapshot previous = TaskSnapshot.of(task);
             TaskStatus currentStatus = task.getStatus();
             task.setStatus(status);
             LocalDateTime now = LocalDateTime.now();
@@ -74,44 +235,256 @@ public class TaskService {
                 task.setFinishedAt(now);
             }
 
-            if(status == TaskStatus.COMPLETED && currentStatus != TaskStatus.COMPLETED) {
+            if(status == TaskStatus.COMPLETED && currentStatus != TaskStatus.COMPLETED && task.getActiveAt() != null) {
+                Duration taskDuration = Duration.between(task.getActiveAt(), task.getFinishedAt());
+                completionTimer().record(taskDuration);
+
                 Person assignedPerson = task.getAssignedPerson();
-                if (assignedPerson != null && task.getActiveAt() != null && task.getFinishedAt() != null) {
-                    long taskDuration = Duration.between(task.getActiveAt(), task.getFinishedAt()).toMinutes();
+                if (assignedPerson != null) {
+                    personService.recordCompletion(assignedPerson.getId(), taskDuration.toMinutes());
+                }
+            }
+
+            Task saved = taskRepository.save(task);
+            taskRepository.flush();
+            eventPublisher.publishEvent(new TaskChangedEvent(previous, TaskSnapshot.of(saved)));
+
+            return saved;
+        });
+    }
+
+    @Transactional
+    public BulkStatusResultDTO updateTaskStatuses(TaskStatusUpdateDTO request) {
+        TaskStatus status = request.getStatus();
+        BulkStatusResultDTO result = new BulkStatusResultDTO();
+        List<TaskSnapshot> tasks = new ArrayList<>();
+
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().distinct().sorted().toList();
+            for (List<Long> chunk : chunks(ids)) {
+                tasks.addAll(taskRepository.findSnapshotsForUpdate(chunk));
+            }
 
-                    int previousTotal = assignedPerson.getTotalTasksCompleted();
-                    int newTotal = previousTotal + 1;
-                    assignedPerson.setTotalTasksCompleted(newTotal);
+            Set<Long> found = tasks.stream().map(TaskSnapshot::getId).collect(Collectors.toSet());
+            ids.stream().filter(id -> !found.contains(id)).forEach(result.getNotFound()::add);
 
-                    double previousAverage = assignedPerson.getAverageTaskDuration();
-                    double newAverage = ((previousAverage * previousTotal) + taskDuration) / newTotal;
-                    assignedPerson.setAverageTaskDuration(newAverage);
+            tasks.removeIf(task -> !matches(task, request));
+        } else {
+            tasks.addAll(taskRepository.findSnapshotsForUpdate(
+                    request.getCurrentStatus(), request.getDepartment(), request.getAssigneeId()));
+        }
+
+        if (tasks.isEmpty()) {
+            return result;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime activeAt = status == TaskStatus.ACTIVE ? now : null;
+        LocalDateTime finishedAt = status == TaskStatus.COMPLETED || status == TaskStatus.CANCELLED ? now : null;
+
+        for (List<Long> chunk : chunks(tasks.stream().map(TaskSnapshot::getId).toList())) {
+            taskRepository.updateStatus(chunk, status, activeAt, finishedAt);
+        }
+
+        // one stats update per person, in id order like the task locks
+        Map<Long, long[]> completions = new TreeMap<>();
+        for (TaskSnapshot previous : tasks) {
+            if (status == TaskStatus.COMPLETED && previous.getStatus() != TaskStatus.COMPLETED && previous.getActiveAt() != null) {
+                Duration taskDuration = Duration.between(previous.getActiveAt(), now);
+                completionTimer().record(taskDuration);
 
-                    personRepository.save(assignedPerson);
+                if (previous.getAssignedPersonId() != null) {
+                    long[] completed = completions.computeIfAbsent(previous.getAssignedPersonId(), id -> new long[2]);
+                    completed[0]++;
+                    completed[1] += taskDuration.toMinutes();
                 }
             }
+        }
+        completions.forEach((personId, completed) ->
+                personService.recordCompletions(personId, (int) completed[0], completed[1]));
 
-            return taskRepository.save(task);
-        });
+        for (TaskSnapshot previous : tasks) {
+            TaskSnapshot current = previous.toBuilder()
+                    .status(status)
+                    .activeAt(activeAt != null ? activeAt : previous.getActiveAt())
+                    .finishedAt(finishedAt != null ? finishedAt : previous.getFinishedAt())
+                    .version(previous.getVersion() + 1)
+                    .build();
+            eventPublisher.publishEvent(new TaskChangedEvent(previous, current));
+        }
+        detachWrites();
+
+        result.setUpdated(tasks.size());
+        return result;
+    }
+
+    @Transactional
+    public AssignmentResultDTO assignIdleTasks(TaskAssignmentDTO request) {
+        AssignmentResultDTO result = new AssignmentResultDTO();
+        List<TaskSnapshot> tasks = new ArrayList<>();
+
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().distinct().sorted().toList();
+            for (List<Long> chunk : chunks(ids)) {
+                tasks.addAll(taskRepository.findSnapshotsForUpdate(chunk));
+            }
+
+            Set<Long> found = tasks.stream().map(TaskSnapshot::getId).collect(Collectors.toSet());
+            ids.stream().filter(id -> !found.contains(id)).forEach(result.getNotFound()::add);
+
+            // only IDLE tasks nobody has yet, the others keep their person
+            tasks.removeIf(task -> task.getStatus() != TaskStatus.IDLE || task.getAssignedPersonId() != null
+                    || (request.getDepartment() != null && !request.getDepartment().equalsIgnoreCase(task.getDepartment())));
+        } else {
+            tasks.addAll(taskRepository.findUnassignedSnapshotsForUpdate(TaskStatus.IDLE, request.getDepartment()));
+        }
+
+        if (tasks.isEmpty()) {
+            return result;
+        }
+
+        Set<String> departments = tasks.stream()
+                .map(task -> AssignmentPlanner.key(task.getDepartment()))
+                .collect(Collectors.toSet());
+        AssignmentPlanner planner = new AssignmentPlanner(personWorkloadService.getCandidates(departments));
+
+        // longest first, the short ones then even out what is left
+        tasks.sort(Comparator.comparingInt(TaskSnapshot::getDuration).reversed().thenComparing(TaskSnapshot::getId));
+
+        Map<Long, Long> assignments = new TreeMap<>();
+        List<TaskChangedEvent> events = new ArrayList<>(tasks.size());
+        for (TaskSnapshot task : tasks) {
+            Long personId = planner.assign(task.getDepartment(), task.getDuration());
+
+            if (personId == null) {
+                result.getNoCandidate().add(task.getId());
+                continue;
+            }
+
+            assignments.put(task.getId(), personId);
+            events.add(new TaskChangedEvent(task, task.toBuilder().assignedPersonId(personId).version(task.getVersion() + 1).build()));
+        }
+
+        if (assignments.isEmpty()) {
+            return result;
+        }
+
+        taskRepository.assignPersons(assignments);
+        events.forEach(eventPublisher::publishEvent);
+        detachWrites();
+
+        result.setAssigned(events.size());
+        return result;
+    }
+
+    private static boolean matches(TaskSnapshot task, TaskStatusUpdateDTO filter) {
+        return (filter.getCurrentStatus() == null || filter.getCurrentStatus() == task.getStatus())
+                && (filter.getDepartment() == null || filter.getDepartment().equalsIgnoreCase(task.getDepartment()))
+                && (filter.getAssigneeId() == null || filter.getAssigneeId().equals(task.getAssignedPersonId()));
+    }
+
+    // The outbox rows written by the listeners stay managed otherwise, and every later query of the
+    // transaction (the workload updates before commit) would dirty check all of them again
+    private void detachWrites() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK) {
+            chunks.add(ids.subList(from, Math.min(from + STATUS_UPDATE_CHUNK, ids.size())));
+        }
+        return chunks;
+    }
+
+    private Timer completionTimer() {
+        return Timer.builder(COMPLETION_TIMER)
+                .description("Time between a task becoming ACTIVE and being COMPLETED")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMinutes(1))
+                .maximumExpectedValue(Duration.ofDays(30))
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getByStatus(TaskStatus status) {
+        return taskRepository.findDTOsByStatus(status);
+    }
+
+    // Draws distinct random ids between the lowest and the highest task of the status and keeps the ones that
+    // are tasks of that status, so every task has the same chance whatever the gaps around it. The draws are
+    // primary key lookups, batched by how many ids it takes at the density of the status (from the counters),
+    // so a common status takes one statement whatever the size of the table. When the status is too rare
+    // among the ids for that, the tasks still missing are picked by a random rank, an OFFSET on the
+    // (status, id) index that reads the tasks it skips, but there are few of them then.
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getRandomByStatus(TaskStatus status, int count) {
+        List<TaskDTO> lowest = taskRepository.findDTOsByStatus(status, PageRequest.of(0, count + 1));
+
+        if (lowest.size() <= count) {
+            List<TaskDTO> tasks = new ArrayList<>(lowest);
+            Collections.shuffle(tasks);
+            return tasks;
+        }
+
+        long minId = lowest.get(0).getId();
+        long maxId = taskRepository.findMaxIdByStatus(status).orElse(minId);
+        long span = maxId - minId + 1;
+        long total = Math.max(taskCounterService.count(status), lowest.size());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        Set<Long> drawn = new HashSet<>();
+        Map<Long, TaskDTO> sample = new LinkedHashMap<>();
+        for (int round = 0; sample.size() < count && round < RANDOM_ROUNDS && drawn.size() < span; round++) {
+            // enough ids to find twice the missing tasks at that density
+            double wanted = Math.ceil(2.0 * (count - sample.size()) * span / total);
+            int batch = (int) Math.min(Math.min(wanted, RANDOM_BATCH), span - drawn.size());
+            List<Long> ids = new ArrayList<>(batch);
+            while (ids.size() < batch) {
+                long id = random.nextLong(minId, maxId + 1);
+                if (drawn.add(id)) {
+                    ids.add(id);
+                }
+            }
+
+            // the first hits in the order drawn, taking all of them would favour the larger batches
+            Map<Long, TaskDTO> found = taskRepository.findDTOsByIdInAndStatus(ids, status).stream()
+                    .collect(Collectors.toMap(TaskDTO::getId, task -> task));
+            for (Long id : ids) {
+                if (sample.size() < count && found.containsKey(id)) {
+                    sample.put(id, found.get(id));
+                }
+            }
+        }
+
+        for (int attempt = 0; sample.size() < count && attempt < count * RANDOM_ATTEMPTS_PER_TASK; attempt++) {
+            int rank = (int) random.nextLong(Math.min(total, Integer.MAX_VALUE));
+            taskRepository.findDTOsByStatus(status, PageRequest.of(rank, 1))
+                    .forEach(task -> sample.putIfAbsent(task.getId(), task));
+        }
+        return new ArrayList<>(sample.values());
     }
 
-    public List<Task> getTasksByDepartment(String department) {
-        return taskRepository.findByDepartment(department);
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksByDepartment(String department) {
+        return taskRepository.findDTOsByDepartment(department);
     }
 
     public List<Object[]> getTaskReportRaw() {
-        return taskRepository.countTasksByDepartment();
+        return taskCounterService.getReport();
     }
 
+    @Transactional(readOnly = true)
     public List<String> getTaskSummaries() {
-    return taskRepository.findAllByOrderByDeadlineDesc().stream()
+    return taskRepository.findSummariesOrderByDeadlineDesc().stream()
             .map(task -> {
                 String status;
                 String horasGastas = "";
 
-                if (task.getAssignedPerson() != null) {
-                    status = "Encaminhado para " + task.getAssignedPerson().getName();
-                    horasGastas = "\n Tempo estimado de horas gastas: " + task.getAssignedPerson().getAverageTaskDuration() * task.getAssignedPerson().getTotalTasksCompleted();
+                if (task.getPersonName() != null) {
+                    status = "Encaminhado para " + task.getPersonName();
+                    horasGastas = "\n Tempo estimado de horas gastas: " + task.getPersonAverageTaskDuration() * task.getPersonTotalTasksCompleted();
                 } else {
                     status = "Pendente";
                 }
@@ -0,0 +1,347 @@
+package taskdb.taskmanager.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import taskdb.taskmanager.dto.TaskChangeDTO;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.mapper.TaskMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed task changes out to the {@code /api/tasks/stream} subscribers.
+ * Every subscriber has its own bounded buffer keyed by task id: a task that changes again before
+ * it was sent only keeps its latest state, and when the buffer is full the oldest change is dropped
+ * and the subscriber gets a {@code dropped} event telling it to reload. Sending happens on a separate
+ * pool, so a slow client never holds up the transaction that published the change. The pool has a thread
+ * per core whatever the number of subscribers, and a subscriber is queued on it at most once: each turn
+ * sends what its buffer held when the turn started, then anything newer waits behind the other subscribers.
+ * A turn still writing after {@code taskmanager.stream.send-timeout} belongs to a client that stopped reading:
+ * it is dropped, its sender thread is interrupted, which closes the connection under the blocked write, and
+ * the pool gets a thread more until that one is back, so the other streams keep their threads.
+ * The streams are completed when the application stops, before the web server waits for the open
+ * requests to finish.
+ */
+@Service
+public class TaskStreamService implements SmartLifecycle {
+
+    public static final String DROPPED_COUNTER = "taskmanager.stream.dropped";
+
+    static final int SENDER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${taskmanager.stream.buffer-size:256}")
+    private int bufferSize = 256;
+
+    @Value("${taskmanager.stream.max-subscribers:1000}")
+    private int maxSubscribers = 1000;
+
+    @Value("${taskmanager.stream.timeout:PT30M}")
+    private Duration timeout = Duration.ofMinutes(30);
+
+    @Value("${taskmanager.stream.send-timeout:PT10S}")
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS,
+            1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), daemonThreads());
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public Optional<SseEmitter> subscribe(String department, Long assigneeId) {
+        if (stopped || subscriptions.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+
+        Subscription subscription = new Subscription(createEmitter(), department, assigneeId);
+        subscription.emitter.onCompletion(() -> subscriptions.remove(subscription));
+        subscription.emitter.onTimeout(subscription.emitter::complete);
+        subscription.emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+
+        // an early comment gets the response headers out, clients and proxies otherwise wait for the first change
+        if (subscription.ping()) {
+            sender.execute(subscription::drain);
+        }
+
+        return Optional.of(subscription.emitter);
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+
+        TaskChangeDTO change = TaskMapper.toChangeDTO(event);
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event) && subscription.offer(change)) {
+                sender.execute(subscription::drain);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${taskmanager.stream.heartbeat:PT15S}",
+               initialDelayString = "${taskmanager.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.ping()) {
+                sender.execute(subscription::drain);
+            }
+        }
+    }
+
+    // a check every send-timeout, so a stuck client is dropped after one to two of them
+    @Scheduled(fixedDelayString = "${taskmanager.stream.send-timeout:PT10S}",
+               initialDelayString = "${taskmanager.stream.send-timeout:PT10S}")
+    public void dropStuckClients() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.interruptIfSendingSince(now - sendTimeout.toNanos())) {
+                subscriptions.remove(subscription);
+                resizeSender(1);
+            }
+        }
+    }
+
+    private synchronized void resizeSender(int delta) {
+        int size = sender.getCorePoolSize() + delta;
+        if (delta > 0) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+    }
+
+    // the graceful shutdown of the web server would otherwise wait out its whole timeout on the streams
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        completeAll();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE + 1;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        completeAll();
+    }
+
+    private void completeAll() {
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        subscriptions.clear();
+    }
+
+    private static CustomizableThreadFactory daemonThreads() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("task-stream-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private class Subscription {
+
+        private final SseEmitter emitter;
+        private final String department;
+        private final Long assigneeId;
+
+        private final LinkedHashMap<Long, TaskChangeDTO> pending = new LinkedHashMap<>();
+        private long dropped;
+        private boolean heartbeat;
+        private boolean draining;
+
+        // the thread writing to the client and since when, guarded by itself
+        private final Object sending = new Object();
+        private Thread sendingThread;
+        private long sendingSince;
+        private boolean stuck;
+
+        Subscription(SseEmitter emitter, String department, Long assigneeId) {
+            this.emitter = emitter;
+            this.department = department;
+            this.assigneeId = assigneeId;
+        }
+
+        // a task moving out of the department or away from the person is still news to this subscriber
+        boolean matches(TaskChangedEvent event) {
+            return matches(event.getPrevious()) || matches(event.getCurrent());
+        }
+
+        private boolean matches(TaskSnapshot snapshot) {
+            return snapshot != null
+                    && (department == null || department.equalsIgnoreCase(snapshot.getDepartment()))
+                    && (assigneeId == null || assigneeId.equals(snapshot.getAssignedPersonId()));
+        }
+
+        // returns true when the caller has to schedule a drain
+        synchronized boolean offer(TaskChangeDTO change) {
+            // re-inserted so a task that keeps changing is not the first one dropped
+            pending.remove(change.getId());
+            pending.put(change.getId(), change);
+
+            if (pending.size() > bufferSize) {
+                Iterator<TaskChangeDTO> oldest = pending.values().iterator();
+                oldest.next();
+                oldest.remove();
+                dropped++;
+                meterRegistry.counter(DROPPED_COUNTER).increment();
+            }
+
+            return schedule();
+        }
+
+        synchronized boolean ping() {
+            heartbeat = true;
+            return schedule();
+        }
+
+        private boolean schedule() {
+            if (draining) {
+                return false;
+            }
+            draining = true;
+            return true;
+        }
+
+        void drain() {
+            List<TaskChangeDTO> changes;
+            long droppedSinceLastSend;
+            boolean ping;
+
+            synchronized (this) {
+                if (pending.isEmpty() && dropped == 0 && !heartbeat) {
+                    draining = false;
+                    return;
+                }
+                changes = new ArrayList<>(pending.values());
+                droppedSinceLastSend = dropped;
+                ping = heartbeat;
+                pending.clear();
+                dropped = 0;
+                heartbeat = false;
+            }
+
+            if (!startSending()) {
+                return;
+            }
+            try {
+                if (droppedSinceLastSend > 0) {
+                    emitter.send(SseEmitter.event().name("dropped").data(droppedSinceLastSend));
+                }
+                for (TaskChangeDTO change : changes) {
+                    emitter.send(SseEmitter.event().name("task").data(change));
+                }
+                if (ping && changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscriptions.remove(this);
+                // a dropped client is completed once its thread is back, below
+                if (!stuck()) {
+                    emitter.completeWithError(e);
+                }
+                return;
+            } finally {
+                stopSending();
+            }
+
+            // what came in meanwhile goes behind the other subscribers instead of keeping this thread
+            if (!stuck() && !sender.isShutdown()) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private boolean startSending() {
+            synchronized (sending) {
+                if (stuck) {
+                    return false;
+                }
+                sendingThread = Thread.currentThread();
+                sendingSince = System.nanoTime();
+                return true;
+            }
+        }
+
+        private void stopSending() {
+            boolean wasStuck;
+            synchronized (sending) {
+                sendingThread = null;
+                wasStuck = stuck;
+                // an interrupt meant for this client must not reach the next one on this thread
+                Thread.interrupted();
+            }
+            if (wasStuck) {
+                emitter.completeWithError(new IOException("Client stopped reading the stream"));
+                resizeSender(-1);
+            }
+        }
+
+        private boolean stuck() {
+            synchronized (sending) {
+                return stuck;
+            }
+        }
+
+        // the write never returns on its own until the socket times out, the interrupt closes the connection
+        boolean interruptIfSendingSince(long before) {
+            synchronized (sending) {
+                if (stuck || sendingThread == null || sendingSince - before > 0) {
+                    return false;
+                }
+                stuck = true;
+                sendingThread.interrupt();
+                return true;
+            }
+        }
+    }
+}
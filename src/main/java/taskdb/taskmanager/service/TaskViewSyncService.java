@@ -0,0 +1,36 @@
+package taskdb.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * The task counts and the deadline index are kept in memory by each instance and only follow the changes
+ * committed through it. Every sync interval this compares the task changes of the other instances in the
+ * change_counter table with what each view was rebuilt from, and rebuilds the views that are behind, so a
+ * write through another instance shows up here within about one interval instead of one reconcile interval.
+ */
+@Service
+public class TaskViewSyncService {
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskDeadlineService taskDeadlineService;
+
+    @Scheduled(fixedDelayString = "${taskmanager.views.sync-interval:PT5S}",
+               initialDelayString = "${taskmanager.views.sync-interval:PT5S}")
+    public void sync() {
+        long otherTaskChanges = changeCounterService.getOtherTaskChanges();
+        if (taskCounterService.isBehind(otherTaskChanges)) {
+            taskCounterService.rebuild();
+        }
+        if (taskDeadlineService.isBehind(otherTaskChanges)) {
+            taskDeadlineService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Committed changes of the tasks and of the persons, the list ETags are built from them
+CREATE TABLE IF NOT EXISTS change_counter (
+    name     VARCHAR(32) PRIMARY KEY,
+    changes  BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO change_counter (name, changes) VALUES ('task', 0), ('person', 0)
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,12 @@
+-- Each counter is spread over 16 rows (slots) and read as their sum, so concurrent writers bump
+-- different rows instead of all queueing on one until they commit
+ALTER TABLE change_counter ADD COLUMN IF NOT EXISTS slot INT NOT NULL DEFAULT 0;
+ALTER TABLE change_counter DROP CONSTRAINT IF EXISTS change_counter_pkey;
+ALTER TABLE change_counter ADD PRIMARY KEY (name, slot);
+ALTER TABLE change_counter ALTER COLUMN slot DROP DEFAULT;
+
+INSERT INTO change_counter (name, slot, changes)
+SELECT counter.name, slot, 0
+FROM (VALUES ('task'), ('person')) AS counter (name)
+CROSS JOIN generate_series(0, 15) AS slot
+ON CONFLICT (name, slot) DO NOTHING;
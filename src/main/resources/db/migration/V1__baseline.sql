@@ -0,0 +1,31 @@
+-- Schema as it was created by ddl-auto=update. Written to be a no-op on databases that
+-- already have it (spring.flyway.baseline-version=0 makes Flyway run it there too).
+
+CREATE TABLE IF NOT EXISTS person (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                    VARCHAR(255) NOT NULL,
+    department              VARCHAR(255) NOT NULL,
+    average_task_duration   DOUBLE PRECISION NOT NULL DEFAULT 0,
+    total_tasks_completed   INTEGER NOT NULL DEFAULT 0
+);
+
+ALTER TABLE person ADD COLUMN IF NOT EXISTS total_task_minutes BIGINT NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE IF NOT EXISTS task_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task (
+    id              BIGINT PRIMARY KEY,
+    title           VARCHAR(255) NOT NULL,
+    description     VARCHAR(1000) NOT NULL,
+    deadline        DATE NOT NULL,
+    department      VARCHAR(255) NOT NULL,
+    duration        INTEGER NOT NULL,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('IDLE', 'ACTIVE', 'COMPLETED', 'CANCELLED')),
+    active_at       TIMESTAMP(6),
+    finished_at     TIMESTAMP(6),
+    person_id       BIGINT REFERENCES person (id)
+);
+
+-- Tasks created before the pooled sequence existed got their ids elsewhere
+SELECT setval('task_seq', (SELECT MAX(id) FROM task) + 50)
+WHERE (SELECT MAX(id) FROM task) + 50 > (SELECT last_value FROM task_seq);
@@ -0,0 +1,16 @@
+-- Keyset pagination and the default /api/tasks/all order
+CREATE INDEX IF NOT EXISTS idx_task_deadline_id ON task (deadline, id);
+
+-- Status filters, /pending (ordered by id) and the counters rebuild
+CREATE INDEX IF NOT EXISTS idx_task_status_id ON task (status, id);
+
+-- Department lookups are case insensitive, so the index is on UPPER(department)
+CREATE INDEX IF NOT EXISTS idx_task_department_upper ON task (UPPER(department));
+CREATE INDEX IF NOT EXISTS idx_person_department_upper ON person (UPPER(department));
+
+-- Join/filter on the assignee
+CREATE INDEX IF NOT EXISTS idx_task_person_id ON task (person_id);
+
+-- Open (IDLE or ACTIVE) tasks are a small slice of the table once it grows
+CREATE INDEX IF NOT EXISTS idx_task_open_deadline ON task (deadline, id) WHERE status IN ('IDLE', 'ACTIVE');
+CREATE INDEX IF NOT EXISTS idx_task_open_person ON task (person_id) WHERE status IN ('IDLE', 'ACTIVE');
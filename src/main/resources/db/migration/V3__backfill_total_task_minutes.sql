@@ -0,0 +1,4 @@
+-- total_task_minutes was added with a 0 default, rebuild it from the stored average
+UPDATE person
+SET total_task_minutes = ROUND(average_task_duration * total_tasks_completed)
+WHERE total_task_minutes = 0 AND total_tasks_completed > 0;
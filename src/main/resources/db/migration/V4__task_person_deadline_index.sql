@@ -0,0 +1,3 @@
+-- Paging through one person's tasks (ORDER BY deadline, id) without sorting all of them
+CREATE INDEX IF NOT EXISTS idx_task_person_deadline_id ON task (person_id, deadline, id);
+DROP INDEX IF EXISTS idx_task_person_id;
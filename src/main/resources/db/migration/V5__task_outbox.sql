@@ -0,0 +1,10 @@
+-- Task changes waiting to be relayed, written in the same transaction as the task itself
+CREATE SEQUENCE IF NOT EXISTS task_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_outbox (
+    id              BIGINT PRIMARY KEY,
+    task_id         BIGINT NOT NULL,
+    change_type     VARCHAR(16) NOT NULL,
+    payload         VARCHAR(4000) NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Open tasks and their duration per person, maintained on every task change from here on
+CREATE TABLE IF NOT EXISTS person_workload (
+    person_id       BIGINT PRIMARY KEY REFERENCES person (id) ON DELETE CASCADE,
+    idle_tasks      BIGINT NOT NULL DEFAULT 0,
+    active_tasks    BIGINT NOT NULL DEFAULT 0,
+    open_duration   BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO person_workload (person_id, idle_tasks, active_tasks, open_duration)
+SELECT p.id,
+       COUNT(t.id) FILTER (WHERE t.status = 'IDLE'),
+       COUNT(t.id) FILTER (WHERE t.status = 'ACTIVE'),
+       COALESCE(SUM(t.duration) FILTER (WHERE t.status IN ('IDLE', 'ACTIVE')), 0)
+FROM person p
+LEFT JOIN task t ON t.person_id = p.id
+GROUP BY p.id
+ON CONFLICT (person_id) DO NOTHING;
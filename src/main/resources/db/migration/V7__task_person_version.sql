@@ -0,0 +1,3 @@
+-- Row versions for optimistic locking and the ETags of GET /api/tasks/{id} and /api/persons/{id}
+ALTER TABLE task ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE person ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Full-text search over title (weight A) and description (weight B) for GET /api/tasks/search.
+-- Generated, so Postgres keeps it right on every write, the JDBC and JPQL bulk updates included.
+-- 'simple' lowercases and splits words without stemming: tasks are not all written in one language.
+ALTER TABLE task ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', title), 'A') || setweight(to_tsvector('simple', description), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_task_search ON task USING GIN (search_vector);
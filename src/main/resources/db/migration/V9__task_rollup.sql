@@ -0,0 +1,27 @@
+-- Tasks that became ACTIVE, COMPLETED or CANCELLED per hour and department, with the seconds from
+-- active_at to finished_at of the completed ones. Maintained on every status change from here on.
+CREATE TABLE IF NOT EXISTS task_rollup (
+    bucket          TIMESTAMP(6) NOT NULL,
+    department      VARCHAR(255) NOT NULL,
+    status          VARCHAR(255) NOT NULL CHECK (status IN ('IDLE', 'ACTIVE', 'COMPLETED', 'CANCELLED')),
+    tasks           BIGINT NOT NULL DEFAULT 0,
+    cycle_tasks     BIGINT NOT NULL DEFAULT 0,
+    cycle_seconds   BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket, department, status)
+);
+
+-- History from the timestamps the tasks still carry, POST /api/tasks/analytics/backfill does the same per range
+INSERT INTO task_rollup (bucket, department, status, tasks, cycle_tasks, cycle_seconds)
+SELECT bucket, department, status, COUNT(*), COUNT(cycle_seconds), COALESCE(SUM(cycle_seconds), 0)
+FROM (
+    SELECT date_trunc('hour', active_at) AS bucket, UPPER(department) AS department, 'ACTIVE' AS status,
+           CAST(NULL AS BIGINT) AS cycle_seconds
+    FROM task WHERE active_at IS NOT NULL
+    UNION ALL
+    SELECT date_trunc('hour', finished_at), UPPER(department), status,
+           CASE WHEN status = 'COMPLETED' AND active_at IS NOT NULL
+                THEN CAST(FLOOR(EXTRACT(EPOCH FROM finished_at) - EXTRACT(EPOCH FROM active_at)) AS BIGINT) END
+    FROM task WHERE status IN ('COMPLETED', 'CANCELLED') AND finished_at IS NOT NULL
+) transitions
+GROUP BY bucket, department, status
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,70 @@
+package taskdb.taskmanager.assignment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssignmentPlannerTest {
+
+    private AssignmentCandidate candidate(long personId, String department, long openDuration,
+                                          double averageTaskDuration, int completed) {
+        return new AssignmentCandidate(personId, department, openDuration, averageTaskDuration, completed);
+    }
+
+    @Test
+    void testAssign_LeastLoadedPersonOfTheDepartment() {
+        AssignmentPlanner planner = new AssignmentPlanner(List.of(
+                candidate(1L, "IT", 10, 0, 0),
+                candidate(2L, "it", 0, 0, 0),
+                candidate(3L, "HR", 0, 0, 0)));
+
+        assertEquals(2L, planner.assign("IT", 4));
+        assertEquals(2L, planner.assign("It", 4));
+        // 8 against 10 still goes to person 2, then they are even and the lower id wins
+        assertEquals(2L, planner.assign("IT", 2));
+        assertEquals(1L, planner.assign("IT", 2));
+        assertEquals(3L, planner.assign("HR", 100));
+    }
+
+    @Test
+    void testAssign_NobodyInTheDepartment() {
+        AssignmentPlanner planner = new AssignmentPlanner(List.of(candidate(1L, "IT", 0, 0, 0)));
+
+        assertNull(planner.assign("SALES", 1));
+    }
+
+    @Test
+    void testAssign_FasterPersonsTakeMoreWork() {
+        // person 1 usually needs twice the time of person 2
+        AssignmentPlanner planner = new AssignmentPlanner(List.of(
+                candidate(1L, "IT", 0, 60, 10),
+                candidate(2L, "IT", 0, 30, 10)));
+
+        Map<Long, Integer> assigned = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            assigned.merge(planner.assign("IT", 1), 1, Integer::sum);
+        }
+
+        assertEquals(100, assigned.get(1L), 1);
+        assertEquals(200, assigned.get(2L), 1);
+    }
+
+    @Test
+    void testAssign_PersonWithoutHistoryGetsTheDepartmentPace() {
+        AssignmentPlanner planner = new AssignmentPlanner(List.of(
+                candidate(1L, "IT", 0, 40, 5),
+                candidate(2L, "IT", 0, 0, 0)));
+
+        Map<Long, Integer> assigned = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            assigned.merge(planner.assign("IT", 1), 1, Integer::sum);
+        }
+
+        assertEquals(50, assigned.get(1L), 1);
+        assertEquals(50, assigned.get(2L), 1);
+    }
+}
@@ -0,0 +1,139 @@
+package taskdb.taskmanager.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import taskdb.taskmanager.config.CachingConfig;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+import taskdb.taskmanager.service.PersonService;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A person with 100k tasks: reading them must not initialize the tasks collection, so the
+// work and the memory per request stay the same as for a person with none.
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class PersonAggregateTest {
+
+    private static final int TASKS = 100_000;
+    private static final long MAX_ALLOCATED_BYTES = 16 * 1024 * 1024;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long busyId;
+    private Long idleId;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        busyId = personRepository.save(Person.builder().name("Busy").department("IT").build()).getId();
+        idleId = personRepository.save(Person.builder().name("Idle").department("IT").build()).getId();
+
+        jdbcTemplate.update("INSERT INTO task (id, title, description, deadline, department, duration, status, person_id) " +
+                "SELECT 10000000 + x, 'Task ' || x, 'Description', DATEADD('DAY', MOD(x, 365), DATE '2025-01-01'), " +
+                "'IT', 1, 'COMPLETED', ? FROM SYSTEM_RANGE(1, ?) AS r(x)", busyId, TASKS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CachingConfig.PERSONS).clear();
+    }
+
+    @AfterAll
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    @Test
+    void testGetPersonById_DoesNotTouchTasks() {
+        Person person = personService.getPersonById(busyId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(person.getTasks()));
+        assertTrue(person.toString().contains("Busy"));
+        assertEquals(person, personRepository.getReferenceById(busyId));
+        assertEquals(person.hashCode(), Person.builder().build().hashCode());
+        assertFalse(Hibernate.isInitialized(person.getTasks()));
+    }
+
+    @Test
+    void testPersonEndpoints_ConstantWork() throws Exception {
+        // warm up class loading and the cache with the idle person
+        for (String path : new String[]{"", "/bill", "/tasks"}) {
+            mockMvc.perform(get("/api/persons/" + idleId + path)).andExpect(status().isOk());
+        }
+        cacheManager.getCache(CachingConfig.PERSONS).clear();
+
+        for (String path : new String[]{"", "/bill", "/tasks?size=100"}) {
+            statistics.clear();
+            long before = allocatedBytes();
+
+            mockMvc.perform(get("/api/persons/" + busyId + path)).andExpect(status().isOk());
+
+            long allocated = allocatedBytes() - before;
+            assertEquals(0, statistics.getCollectionFetchCount(), path);
+            assertTrue(statistics.getEntityLoadCount() <= 1, path + ": " + statistics.getEntityLoadCount());
+            assertTrue(allocated < MAX_ALLOCATED_BYTES, path + " allocated " + allocated + " bytes");
+        }
+    }
+
+    @Test
+    void testGetPersonTasks_PagesThroughAllTasks() throws Exception {
+        mockMvc.perform(get("/api/persons/" + busyId + "/tasks?size=500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(500))
+                .andExpect(jsonPath("$[0].assignedPersonId").value(busyId));
+
+        mockMvc.perform(get("/api/persons/" + idleId + "/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        mockMvc.perform(get("/api/persons/-1/tasks"))
+                .andExpect(status().isNotFound());
+    }
+}
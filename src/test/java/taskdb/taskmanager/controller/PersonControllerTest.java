@@ -7,23 +7,38 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import taskdb.taskmanager.config.WireFormatConfig;
+import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.PersonSnapshot;
+import taskdb.taskmanager.dto.PersonWorkloadDTO;
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.dto.TaskDTO;
 import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.service.ChangeCounterService;
 import taskdb.taskmanager.service.PersonService;
+import taskdb.taskmanager.service.PersonWorkloadService;
+import taskdb.taskmanager.service.TaskService;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PersonController.class)
+@Import(WireFormatConfig.class)
 public class PersonControllerTest {
 
     @Autowired
@@ -32,13 +47,22 @@ public class PersonControllerTest {
     @MockBean
     private PersonService personService;
 
+    @MockBean
+    private TaskService taskService;
+
+    @MockBean
+    private PersonWorkloadService personWorkloadService;
+
+    @MockBean
+    private ChangeCounterService changeCounterService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     void testGetAllPersons() throws Exception {
-        Person p1 = Person.builder().id(1L).name("Alice").build();
-        Person p2 = Person.builder().id(2L).name("Bob").build();
+        PersonDTO p1 = PersonDTO.builder().id(1L).name("Alice").build();
+        PersonDTO p2 = PersonDTO.builder().id(2L).name("Bob").build();
 
         Mockito.when(personService.getAllPersons()).thenReturn(Arrays.asList(p1, p2));
 
@@ -49,11 +73,40 @@ public class PersonControllerTest {
                 .andExpect(jsonPath("$[1].name").value("Bob"));
     }
 
+    @Test
+    void testGetAllPersons_Cbor() throws Exception {
+        PersonDTO[] persons = {
+                PersonDTO.builder().id(1L).name("Alice").department("IT").averageTaskDuration(42.5).totalTasksCompleted(2).build(),
+                PersonDTO.builder().id(2L).name("Bob").department("IT").build()
+        };
+        Mockito.when(personService.getAllPersons()).thenReturn(List.of(persons));
+
+        byte[] body = mockMvc.perform(get("/api/persons/all").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ObjectMapper cbor = WireFormatConfig.cborMapper(Jackson2ObjectMapperBuilder.json());
+        assertArrayEquals(persons, cbor.readValue(body, PersonDTO[].class));
+    }
+
+    @Test
+    void testGetPersonTasks_ExcludeDescription() throws Exception {
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(PersonSnapshot.builder().id(1L).build()));
+        Mockito.when(taskService.getPage(null, null, 1L, null, 51))
+                .thenReturn(List.of(TaskDTO.builder().id(3L).title("Task").description("Description").build()));
+
+        mockMvc.perform(get("/api/persons/1/tasks").param("exclude", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Task"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
     @Test
     void testGetPersonById_Found() throws Exception {
-        Person p = Person.builder().id(1L).name("Alice").build();
+        PersonSnapshot p = PersonSnapshot.builder().id(1L).name("Alice").build();
 
-        Mockito.when(personService.getPersonById(1L)).thenReturn(Optional.of(p));
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(p));
 
         mockMvc.perform(get("/api/persons/1"))
                 .andExpect(status().isOk())
@@ -62,12 +115,47 @@ public class PersonControllerTest {
 
     @Test
     void testGetPersonById_NotFound() throws Exception {
-        Mockito.when(personService.getPersonById(99L)).thenReturn(Optional.empty());
+        Mockito.when(personService.getPersonSnapshot(99L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/persons/99"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetPersonById_NotModified() throws Exception {
+        PersonSnapshot p = PersonSnapshot.builder().id(1L).name("Alice").version(2).build();
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(p));
+
+        mockMvc.perform(get("/api/persons/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"2\""));
+
+        mockMvc.perform(get("/api/persons/1").header("If-None-Match", "W/\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        p.setVersion(3);
+        mockMvc.perform(get("/api/persons/1").header("If-None-Match", "W/\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""));
+    }
+
+    @Test
+    void testGetAllPersons_NotModifiedUntilPersonsChange() throws Exception {
+        Mockito.when(personService.getAllPersons()).thenReturn(List.of());
+        String etag = mockMvc.perform(get("/api/persons/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/persons/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        Mockito.verify(personService, Mockito.times(1)).getAllPersons();
+
+        Mockito.when(changeCounterService.getPersonChanges()).thenReturn(1L);
+        mockMvc.perform(get("/api/persons/all").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void testSavePerson_Success() throws Exception {
         Person p = Person.builder().id(1L).name("Alice").build();
@@ -118,10 +206,10 @@ public class PersonControllerTest {
 
     @Test
     void testGetBill_Success() throws Exception {
-        Person p = Person.builder().id(1L).name("Alice").department("IT")
+        PersonSnapshot p = PersonSnapshot.builder().id(1L).name("Alice").department("IT")
                 .averageTaskDuration(30).totalTasksCompleted(5).build();
 
-        Mockito.when(personService.getPersonById(1L)).thenReturn(Optional.of(p));
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(p));
 
         mockMvc.perform(get("/api/persons/1/bill"))
                 .andExpect(status().isOk())
@@ -133,7 +221,7 @@ public class PersonControllerTest {
 
     @Test
     void testGetBill_NotFound() throws Exception {
-        Mockito.when(personService.getPersonById(99L)).thenReturn(Optional.empty());
+        Mockito.when(personService.getPersonSnapshot(99L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/persons/99/bill"))
                 .andExpect(status().isNotFound());
@@ -141,13 +229,12 @@ public class PersonControllerTest {
 
     @Test
     void testGetPersonsByDepartment() throws Exception {
-        List<Person> people = List.of(
-            Person.builder().id(1L).name("Alice").department("IT").build(),
-            Person.builder().id(2L).name("Bob").department("HR").build(),
-            Person.builder().id(3L).name("Charlie").department("IT").build()
+        List<PersonDTO> people = List.of(
+            PersonDTO.builder().id(1L).name("Alice").department("IT").build(),
+            PersonDTO.builder().id(3L).name("Charlie").department("IT").build()
         );
 
-        Mockito.when(personService.getAllPersons()).thenReturn(people);
+        Mockito.when(personService.findByDepartment("IT")).thenReturn(people);
 
         mockMvc.perform(get("/api/persons/department/IT"))
                 .andExpect(status().isOk())
@@ -158,12 +245,7 @@ public class PersonControllerTest {
 
     @Test
     void testGetPersonsByDepartment_NotFound() throws Exception {
-        List<Person> people = List.of(
-            Person.builder().id(1L).name("Alice").department("IT").build(),
-            Person.builder().id(2L).name("Bob").department("HR").build()
-        );
-
-        Mockito.when(personService.getAllPersons()).thenReturn(people);
+        Mockito.when(personService.findByDepartment("Finance")).thenReturn(List.of());
 
         mockMvc.perform(get("/api/persons/department/Finance"))
                 .andExpect(status().isOk())
@@ -172,7 +254,7 @@ public class PersonControllerTest {
 
     @Test
     void testGetPersonsByDepartment_EmptyList() throws Exception {
-        Mockito.when(personService.getAllPersons()).thenReturn(List.of());
+        Mockito.when(personService.findByDepartment("IT")).thenReturn(List.of());
 
         mockMvc.perform(get("/api/persons/department/IT"))
                 .andExpect(status().isOk())
@@ -181,10 +263,93 @@ public class PersonControllerTest {
 
     @Test
     void testGetPersonsByDepartment_InvalidDepartment() throws Exception {
-        Mockito.when(personService.getAllPersons()).thenReturn(List.of());
+        Mockito.when(personService.findByDepartment("Invalid")).thenReturn(List.of());
 
         mockMvc.perform(get("/api/persons/department/Invalid"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetPersonTasks_FirstPage() throws Exception {
+        LocalDate deadline = LocalDate.of(2025, 8, 1);
+        List<TaskDTO> tasks = List.of(
+                TaskDTO.builder().id(1L).title("Task 1").deadline(deadline).assignedPersonId(1L).build(),
+                TaskDTO.builder().id(2L).title("Task 2").deadline(deadline).assignedPersonId(1L).build(),
+                TaskDTO.builder().id(3L).title("Task 3").deadline(deadline).assignedPersonId(1L).build());
+
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(PersonSnapshot.builder().id(1L).build()));
+        Mockito.when(taskService.getPage(TaskStatus.ACTIVE, null, 1L, null, 3)).thenReturn(tasks);
+
+        mockMvc.perform(get("/api/persons/1/tasks?size=2&status=ACTIVE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].title").value("Task 2"))
+                .andExpect(header().string("X-Next-Cursor", new TaskCursor(deadline, 2L).encode()));
+    }
+
+    @Test
+    void testGetPersonTasks_WithCursor() throws Exception {
+        TaskCursor cursor = new TaskCursor(LocalDate.of(2025, 8, 1), 2L);
+
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(PersonSnapshot.builder().id(1L).build()));
+        Mockito.when(taskService.getPage(null, null, 1L, cursor, 51)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/persons/1/tasks?cursor=" + cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void testGetPersonTasks_InvalidCursor() throws Exception {
+        Mockito.when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(PersonSnapshot.builder().id(1L).build()));
+
+        mockMvc.perform(get("/api/persons/1/tasks?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetPersonTasks_PersonNotFound() throws Exception {
+        Mockito.when(personService.getPersonSnapshot(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/persons/99/tasks"))
+                .andExpect(status().isNotFound());
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void testGetPersonWorkload() throws Exception {
+        Mockito.when(personWorkloadService.getWorkload(1L)).thenReturn(Optional.of(PersonWorkloadDTO.builder()
+                .personId(1L).name("Alice").idleTasks(2).activeTasks(1).openDuration(90).completedTasks(4).build()));
+
+        mockMvc.perform(get("/api/persons/1/workload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.idleTasks").value(2))
+                .andExpect(jsonPath("$.activeTasks").value(1))
+                .andExpect(jsonPath("$.openDuration").value(90))
+                .andExpect(jsonPath("$.completedTasks").value(4));
+    }
+
+    @Test
+    void testGetPersonWorkload_NotFound() throws Exception {
+        Mockito.when(personWorkloadService.getWorkload(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/persons/99/workload"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetDepartmentWorkload() throws Exception {
+        Mockito.when(personWorkloadService.getWorkloadsByDepartment("IT")).thenReturn(List.of(
+                PersonWorkloadDTO.builder().personId(1L).name("Alice").idleTasks(2).build(),
+                PersonWorkloadDTO.builder().personId(2L).name("Bob").build()));
+
+        mockMvc.perform(get("/api/persons/department/IT/workload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].idleTasks").value(2))
+                .andExpect(jsonPath("$[1].name").value("Bob"));
+    }
+}
@@ -7,27 +7,55 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
-
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import taskdb.taskmanager.config.WireFormatConfig;
+import taskdb.taskmanager.dto.BulkErrorDTO;
+import taskdb.taskmanager.dto.BulkResultDTO;
+import taskdb.taskmanager.dto.AssignmentResultDTO;
+import taskdb.taskmanager.dto.BulkStatusResultDTO;
+import taskdb.taskmanager.dto.TaskAnalyticsDTO;
+import taskdb.taskmanager.dto.TaskAssignmentDTO;
+import taskdb.taskmanager.dto.TaskCursor;
 import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.dto.TaskSearchCursor;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
 import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.mapper.TaskMapper;
 import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.service.TaskImportService;
+import taskdb.taskmanager.service.TaskRollupService;
 import taskdb.taskmanager.service.TaskService;
+import taskdb.taskmanager.service.TaskStreamService;
+import taskdb.taskmanager.service.ChangeCounterService;
 import taskdb.taskmanager.service.PersonService;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
+@Import(WireFormatConfig.class)
 public class TaskControllerTest {
 
     @Autowired
@@ -39,38 +67,419 @@ public class TaskControllerTest {
     @MockBean
     private PersonService personService;
 
+    @MockBean
+    private TaskImportService taskImportService;
+
+    @MockBean
+    private TaskStreamService taskStreamService;
+
+    @MockBean
+    private ChangeCounterService changeCounterService;
+
+    @MockBean
+    private TaskRollupService taskRollupService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @Test
     void testGetAllTasks() throws Exception {
-        Task task1 = Task.builder()
+        TaskDTO task1 = TaskDTO.builder()
                 .id(1L)
                 .title("Task 1")
-                .status(TaskStatus.IDLE)
+                .status("IDLE")
                 .department("HR")
                 .deadline(LocalDate.now().plusDays(1))
                 .duration(60)
                 .build();
 
-        Task task2 = Task.builder()
+        TaskDTO task2 = TaskDTO.builder()
                 .id(2L)
                 .title("Task 2")
-                .status(TaskStatus.ACTIVE)
+                .status("ACTIVE")
                 .department("IT")
                 .deadline(LocalDate.now().plusDays(2))
                 .duration(30)
                 .build();
 
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1, task2));
+        Mockito.when(taskService.getPage(null, null, null, null, 51)).thenReturn(Arrays.asList(task1, task2));
 
         mockMvc.perform(get("/api/tasks/all"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].title").value("Task 1"))
                 .andExpect(jsonPath("$[1].status").value("ACTIVE"));
     }
 
+    @Test
+    void testGetAllTasks_Cbor() throws Exception {
+        TaskDTO task = TaskDTO.builder()
+                .id(1L)
+                .title("Task 1")
+                .description("Description")
+                .status("ACTIVE")
+                .department("IT")
+                .deadline(LocalDate.of(2025, 8, 1))
+                .activeAt(LocalDateTime.of(2025, 7, 1, 9, 30))
+                .duration(60)
+                .assignedPersonId(7L)
+                .build();
+        Mockito.when(taskService.getPage(null, null, null, null, 51)).thenReturn(List.of(task));
+
+        byte[] body = mockMvc.perform(get("/api/tasks/all").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ObjectMapper cbor = WireFormatConfig.cborMapper(Jackson2ObjectMapperBuilder.json());
+        TaskDTO[] tasks = cbor.readValue(body, TaskDTO[].class);
+        assertEquals(List.of(task), List.of(tasks));
+    }
+
+    @Test
+    void testGetAllTasks_ExcludeDescription() throws Exception {
+        TaskDTO task = TaskDTO.builder().id(1L).title("Task 1").description("Long description").status("IDLE").build();
+        Mockito.when(taskService.getPage(null, null, null, null, 51)).thenReturn(List.of(task));
+
+        mockMvc.perform(get("/api/tasks/all").param("exclude", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Task 1"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].activeAt").hasJsonPath());
+    }
+
+    @Test
+    void testGetAllTasks_UnknownMaskField() throws Exception {
+        mockMvc.perform(get("/api/tasks/all").param("exclude", "title"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void testGetAllTasks_NextCursor() throws Exception {
+        LocalDate deadline = LocalDate.of(2025, 8, 1);
+        TaskDTO task1 = TaskDTO.builder().id(1L).title("Task 1").status("IDLE").deadline(deadline).build();
+        TaskDTO task2 = TaskDTO.builder().id(2L).title("Task 2").status("IDLE").deadline(deadline).build();
+        TaskDTO task3 = TaskDTO.builder().id(3L).title("Task 3").status("IDLE").deadline(deadline).build();
+
+        Mockito.when(taskService.getPage(TaskStatus.IDLE, "HR", 7L, null, 3))
+                .thenReturn(Arrays.asList(task1, task2, task3));
+
+        mockMvc.perform(get("/api/tasks/all")
+                .param("size", "2")
+                .param("status", "IDLE")
+                .param("department", "HR")
+                .param("assigneeId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new TaskCursor(deadline, 2L).encode()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    void testGetAllTasks_WithCursor() throws Exception {
+        TaskCursor cursor = new TaskCursor(LocalDate.of(2025, 8, 1), 2L);
+
+        Mockito.when(taskService.getPage(null, null, null, cursor, 51)).thenReturn(Arrays.asList());
+
+        mockMvc.perform(get("/api/tasks/all").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testGetAllTasks_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/tasks/all").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetOverdueTasks() throws Exception {
+        LocalDate deadline = LocalDate.of(2025, 8, 1);
+        List<TaskDTO> tasks = List.of(
+                TaskDTO.builder().id(1L).title("Task 1").deadline(deadline).build(),
+                TaskDTO.builder().id(2L).title("Task 2").deadline(deadline).build());
+
+        Mockito.when(taskService.getOverdue(null, 2)).thenReturn(tasks);
+
+        mockMvc.perform(get("/api/tasks/overdue").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", new TaskCursor(deadline, 1L).encode()));
+    }
+
+    @Test
+    void testGetDueTasks() throws Exception {
+        Mockito.when(taskService.getDueWithin(Duration.ofHours(48), null, 51))
+                .thenReturn(List.of(TaskDTO.builder().id(1L).title("Task 1").build()));
+
+        mockMvc.perform(get("/api/tasks/due").param("within", "PT48H"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Task 1"));
+
+        mockMvc.perform(get("/api/tasks/due").param("within", "48h"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Task 1"));
+    }
+
+    @Test
+    void testGetDueTasks_InvalidWithin() throws Exception {
+        mockMvc.perform(get("/api/tasks/due")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/due").param("within", "soon")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/due").param("within", "-PT1H")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchTasks() throws Exception {
+        TaskDTO task1 = TaskDTO.builder().id(1L).title("Printer jam").description("Second floor").status("IDLE").build();
+        TaskDTO task2 = TaskDTO.builder().id(2L).title("Printer toner").description("Reception").status("IDLE").build();
+        TaskDTO task3 = TaskDTO.builder().id(3L).title("Desk").description("Move the printer").status("IDLE").build();
+
+        Mockito.when(taskService.search("printer", TaskStatus.IDLE, "TI", null, 3)).thenReturn(List.of(
+                new TaskSearchHit(task1, 0.6f), new TaskSearchHit(task2, 0.6f), new TaskSearchHit(task3, 0.2f)));
+
+        mockMvc.perform(get("/api/tasks/search")
+                .param("q", "printer")
+                .param("size", "2")
+                .param("status", "IDLE")
+                .param("department", "TI")
+                .param("exclude", "description"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", new TaskSearchCursor(0.6f, 2L).encode()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Printer jam"))
+                .andExpect(jsonPath("$[1].description").doesNotExist());
+    }
+
+    @Test
+    void testSearchTasks_WithCursor() throws Exception {
+        TaskSearchCursor cursor = new TaskSearchCursor(0.6f, 2L);
+        Mockito.when(taskService.search("printer", null, null, cursor, 51)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "printer").param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testSearchTasks_InvalidRequest() throws Exception {
+        mockMvc.perform(get("/api/tasks/search")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/search").param("q", "  ")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/search").param("q", "x".repeat(201))).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/search").param("q", "printer").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/search").param("q", "printer").param("exclude", "title"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void testGetAnalytics() throws Exception {
+        LocalDate from = LocalDate.of(2025, 8, 1);
+        LocalDate to = LocalDate.of(2025, 8, 31);
+        TaskAnalyticsDTO day = TaskAnalyticsDTO.builder()
+                .period(LocalDateTime.of(2025, 8, 4, 0, 0))
+                .department("TI")
+                .started(5)
+                .completed(3)
+                .averageCycleMinutes(95.5)
+                .build();
+        Mockito.when(taskRollupService.getAnalytics(from, to, "TI", ChronoUnit.DAYS)).thenReturn(List.of(day));
+
+        mockMvc.perform(get("/api/tasks/analytics")
+                .param("from", "2025-08-01")
+                .param("to", "2025-08-31")
+                .param("department", "TI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].period").value("2025-08-04T00:00:00"))
+                .andExpect(jsonPath("$[0].completed").value(3))
+                .andExpect(jsonPath("$[0].averageCycleMinutes").value(95.5));
+
+        Mockito.when(taskRollupService.getAnalytics(from, from, null, ChronoUnit.HOURS)).thenReturn(List.of());
+        mockMvc.perform(get("/api/tasks/analytics")
+                .param("from", "2025-08-01")
+                .param("to", "2025-08-01")
+                .param("interval", "hour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testGetAnalytics_InvalidRange() throws Exception {
+        mockMvc.perform(get("/api/tasks/analytics").param("from", "2025-08-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/analytics").param("from", "2025-08-02").param("to", "2025-08-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/analytics").param("from", "2024-01-01").param("to", "2025-12-31"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/analytics").param("from", "2025-08-01").param("to", "2025-08-31")
+                .param("interval", "week"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskRollupService);
+    }
+
+    @Test
+    void testBackfillAnalytics() throws Exception {
+        Mockito.when(taskRollupService.backfill(LocalDate.of(2025, 1, 1), null)).thenReturn(120);
+
+        mockMvc.perform(post("/api/tasks/analytics/backfill").param("from", "2025-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2025-01-01"))
+                .andExpect(jsonPath("$.buckets").value(120));
+
+        mockMvc.perform(post("/api/tasks/analytics/backfill").param("from", "2025-02-01").param("to", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUpdateTaskStatuses() throws Exception {
+        TaskStatusUpdateDTO request = TaskStatusUpdateDTO.builder()
+                .status(TaskStatus.COMPLETED)
+                .ids(List.of(1L, 2L, 3L))
+                .build();
+        Mockito.when(taskService.updateTaskStatuses(request))
+                .thenReturn(BulkStatusResultDTO.builder().updated(2).notFound(List.of(3L)).build());
+
+        mockMvc.perform(put("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2))
+                .andExpect(jsonPath("$.notFound[0]").value(3));
+    }
+
+    @Test
+    void testUpdateTaskStatuses_NeedsStatusAndSelection() throws Exception {
+        mockMvc.perform(put("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\": \"COMPLETED\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(put("/api/tasks/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1]}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void testAssignIdleTasks() throws Exception {
+        TaskAssignmentDTO request = TaskAssignmentDTO.builder().department("IT").build();
+        Mockito.when(taskService.assignIdleTasks(request))
+                .thenReturn(AssignmentResultDTO.builder().assigned(5).noCandidate(List.of(9L)).build());
+
+        mockMvc.perform(put("/api/tasks/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(5))
+                .andExpect(jsonPath("$.noCandidate[0]").value(9));
+    }
+
+    @Test
+    void testAssignIdleTasks_NeedsSelection() throws Exception {
+        mockMvc.perform(put("/api/tasks/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": []}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void testStreamTasks() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        Mockito.when(taskStreamService.subscribe("IT", 7L)).thenReturn(Optional.of(emitter));
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/stream")
+                        .param("department", "IT")
+                        .param("assigneeId", "7")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        emitter.send(SseEmitter.event().name("task").data("{\"id\":1}", MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("event:task\ndata:{\"id\":1}\n\n"));
+    }
+
+    @Test
+    void testStreamTasks_TooManySubscribers() throws Exception {
+        Mockito.when(taskStreamService.subscribe(null, null)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/tasks/stream")).andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testExportTasks_Ndjson() throws Exception {
+        TaskDTO task1 = TaskDTO.builder().id(1L).title("Task 1").status("IDLE").build();
+        TaskDTO task2 = TaskDTO.builder().id(2L).title("Task 2").status("ACTIVE").build();
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(4);
+            consumer.accept(task1);
+            consumer.accept(task2);
+            return null;
+        }).when(taskService).exportTasks(eq(null), eq("HR"), eq(LocalDate.of(2025, 1, 1)), eq(null), any());
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export")
+                        .param("department", "HR")
+                        .param("from", "2025-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Task 1", objectMapper.readValue(lines[0], TaskDTO.class).getTitle());
+        assertEquals("ACTIVE", objectMapper.readValue(lines[1], TaskDTO.class).getStatus());
+    }
+
+    @Test
+    void testExportTasks_Csv() throws Exception {
+        TaskDTO task = TaskDTO.builder().id(1L).title("Task, \"one\"").status("IDLE")
+                .deadline(LocalDate.of(2025, 8, 1)).department("HR").duration(4).build();
+
+        Mockito.doAnswer(invocation -> {
+            Consumer<TaskDTO> consumer = invocation.getArgument(4);
+            consumer.accept(task);
+            return null;
+        }).when(taskService).exportTasks(eq(TaskStatus.IDLE), eq(null), eq(null), eq(null), any());
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export")
+                        .param("format", "csv")
+                        .param("status", "IDLE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(TaskMapper.CSV_HEADER + "\n" +
+                        "1,\"Task, \"\"one\"\"\",,2025-08-01,HR,4,IDLE,,,\n"));
+    }
+
+    @Test
+    void testExportTasks_UnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetTaskById_Found() throws Exception {
         Task task = Task.builder()
@@ -95,6 +504,74 @@ public class TaskControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetTaskById_TaggedWithVersion() throws Exception {
+        Task task = Task.builder().id(1L).title("Task 1").status(TaskStatus.IDLE).version(3).build();
+        Mockito.when(taskService.getById(1L)).thenReturn(Optional.of(task));
+
+        mockMvc.perform(get("/api/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""));
+    }
+
+    @Test
+    void testGetTaskById_NotModifiedWithoutLoadingTheTask() throws Exception {
+        Mockito.when(taskService.getVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "\"2\", W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"3\""));
+
+        Mockito.verify(taskService, Mockito.never()).getById(any());
+    }
+
+    @Test
+    void testGetTaskById_ChangedSinceTheClientsCopy() throws Exception {
+        Task task = Task.builder().id(1L).title("Task 1").status(TaskStatus.ACTIVE).version(4).build();
+        Mockito.when(taskService.getVersion(1L)).thenReturn(Optional.of(4L));
+        Mockito.when(taskService.getById(1L)).thenReturn(Optional.of(task));
+
+        mockMvc.perform(get("/api/tasks/1").header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"4\""))
+                .andExpect(jsonPath("$.status").value("ACTIVE"));
+    }
+
+    @Test
+    void testGetTaskById_RevalidatingADeletedTask() throws Exception {
+        Mockito.when(taskService.getVersion(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/tasks/99").header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetPendingTasks_NotModifiedUntilTasksChange() throws Exception {
+        Mockito.when(taskService.getByStatus(TaskStatus.IDLE)).thenReturn(List.of());
+        String etag = mockMvc.perform(get("/api/tasks/pending"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/pending").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        Mockito.verify(taskService, Mockito.times(1)).getByStatus(TaskStatus.IDLE);
+
+        Mockito.when(changeCounterService.getTaskChanges()).thenReturn(1L);
+        mockMvc.perform(get("/api/tasks/pending").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetAllTasks_PageNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/tasks/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/tasks/all").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        Mockito.verify(taskService, Mockito.times(1)).getPage(any(), any(), any(), any(), Mockito.anyInt());
+    }
+
     @Test
     void testSaveTask_Success() throws Exception {
         TaskDTO taskDTO = new TaskDTO();
@@ -118,9 +595,49 @@ public class TaskControllerTest {
     }
 
 
+    @Test
+    void testSaveTasks_JsonArray() throws Exception {
+        List<String> titles = new ArrayList<>();
+        Mockito.when(taskImportService.importTasks(any())).thenAnswer(invocation -> {
+            Iterator<TaskDTO> rows = invocation.getArgument(0);
+            rows.forEachRemaining(row -> titles.add(row.getTitle()));
+            return BulkResultDTO.builder().received(titles.size()).saved(1)
+                    .errors(List.of(new BulkErrorDTO(2, "Person not found for ID: 9"))).build();
+        });
+
+        mockMvc.perform(post("/api/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\": \"Task 1\"}, {\"title\": \"Task 2\", \"assignedPersonId\": 9}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.saved").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+
+        assertEquals(List.of("Task 1", "Task 2"), titles);
+    }
+
+    @Test
+    void testSaveTasks_Ndjson() throws Exception {
+        List<String> titles = new ArrayList<>();
+        Mockito.when(taskImportService.importTasks(any())).thenAnswer(invocation -> {
+            Iterator<TaskDTO> rows = invocation.getArgument(0);
+            rows.forEachRemaining(row -> titles.add(row.getTitle()));
+            return BulkResultDTO.builder().received(titles.size()).saved(titles.size()).build();
+        });
+
+        mockMvc.perform(post("/api/tasks/bulk")
+                .contentType("application/x-ndjson")
+                .content("{\"title\": \"Task 1\"}\n{\"title\": \"Task 2\"}\n{\"title\": \"Task 3\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.saved").value(3))
+                .andExpect(jsonPath("$.errors.length()").value(0));
+
+        assertEquals(List.of("Task 1", "Task 2", "Task 3"), titles);
+    }
+
     @Test
     void testGetAllTasks_EmptyList() throws Exception {
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList());
+        Mockito.when(taskService.getPage(null, null, null, null, 51)).thenReturn(Arrays.asList());
 
         mockMvc.perform(get("/api/tasks/all"))
                 .andExpect(status().isOk())
@@ -129,10 +646,7 @@ public class TaskControllerTest {
 
     @Test
     void testGetPendingTasks_NoIdleTasks() throws Exception {
-        Task task1 = Task.builder().id(1L).status(TaskStatus.ACTIVE).build();
-        Task task2 = Task.builder().id(2L).status(TaskStatus.COMPLETED).build();
-
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1, task2));
+        Mockito.when(taskService.getByStatus(TaskStatus.IDLE)).thenReturn(Arrays.asList());
 
         mockMvc.perform(get("/api/tasks/pending"))
                 .andExpect(status().isOk())
@@ -141,9 +655,9 @@ public class TaskControllerTest {
 
     @Test
     void testGetRandPendingTasks_LessThanThree() throws Exception {
-        Task task1 = Task.builder().id(1L).status(TaskStatus.IDLE).build();
+        TaskDTO task1 = TaskDTO.builder().id(1L).status("IDLE").build();
 
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1));
+        Mockito.when(taskService.getRandomByStatus(TaskStatus.IDLE, 3)).thenReturn(Arrays.asList(task1));
 
         mockMvc.perform(get("/api/tasks/pending/rand"))
                 .andExpect(status().isOk())
@@ -152,9 +666,7 @@ public class TaskControllerTest {
 
     @Test
     void testGetTasksByDepartment_NoMatch() throws Exception {
-        Task task1 = Task.builder().id(1L).department("HR").build();
-
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1));
+        Mockito.when(taskService.getTasksByDepartment("IT")).thenReturn(Arrays.asList());
 
         mockMvc.perform(get("/api/tasks/department/IT"))
                 .andExpect(status().isOk())
@@ -212,10 +724,9 @@ public class TaskControllerTest {
 
     @Test
     void testGetPendingTasks() throws Exception {
-        Task task1 = Task.builder().id(1L).status(TaskStatus.IDLE).build();
-        Task task2 = Task.builder().id(2L).status(TaskStatus.ACTIVE).build();
+        TaskDTO task1 = TaskDTO.builder().id(1L).status("IDLE").build();
 
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1, task2));
+        Mockito.when(taskService.getByStatus(TaskStatus.IDLE)).thenReturn(Arrays.asList(task1));
 
         mockMvc.perform(get("/api/tasks/pending"))
                 .andExpect(status().isOk())
@@ -225,12 +736,11 @@ public class TaskControllerTest {
 
     @Test
     void testGetRandPendingTasks() throws Exception {
-        Task task1 = Task.builder().id(1L).status(TaskStatus.IDLE).build();
-        Task task2 = Task.builder().id(2L).status(TaskStatus.IDLE).build();
-        Task task3 = Task.builder().id(3L).status(TaskStatus.IDLE).build();
-        Task task4 = Task.builder().id(4L).status(TaskStatus.IDLE).build();
+        TaskDTO task1 = TaskDTO.builder().id(1L).status("IDLE").build();
+        TaskDTO task2 = TaskDTO.builder().id(2L).status("IDLE").build();
+        TaskDTO task3 = TaskDTO.builder().id(3L).status("IDLE").build();
 
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1, task2, task3, task4));
+        Mockito.when(taskService.getRandomByStatus(TaskStatus.IDLE, 3)).thenReturn(Arrays.asList(task1, task2, task3));
 
         mockMvc.perform(get("/api/tasks/pending/rand"))
                 .andExpect(status().isOk())
@@ -239,14 +749,39 @@ public class TaskControllerTest {
 
     @Test
     void testGetTasksByDepartment() throws Exception {
-        Task task1 = Task.builder().id(1L).department("HR").build();
-        Task task2 = Task.builder().id(2L).department("IT").build();
+        TaskDTO task1 = TaskDTO.builder().id(1L).department("HR").build();
 
-        Mockito.when(taskService.getAll()).thenReturn(Arrays.asList(task1, task2));
+        Mockito.when(taskService.getTasksByDepartment("HR")).thenReturn(Arrays.asList(task1));
 
         mockMvc.perform(get("/api/tasks/department/HR"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].department").value("HR"));
     }
+
+    @Test
+    void testGetTaskReport() throws Exception {
+        Mockito.when(taskService.getTaskReportRaw()).thenReturn(List.<Object[]>of(
+                new Object[] {"HR", 0L, 1L},
+                new Object[] {"IT", 2L, 1L}
+        ));
+
+        mockMvc.perform(get("/api/tasks/report"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Department: HR\n" +
+                        "Finished Tasks: 0\n" +
+                        "Unfinished Tasks: 1\n\n" +
+                        "Department: IT\n" +
+                        "Finished Tasks: 2\n" +
+                        "Unfinished Tasks: 1"));
+    }
+
+    @Test
+    void testGetTaskReport_Empty() throws Exception {
+        Mockito.when(taskService.getTaskReportRaw()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/tasks/report"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("No departments found."));
+    }
 }
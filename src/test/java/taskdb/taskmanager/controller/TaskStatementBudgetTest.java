@@ -0,0 +1,314 @@
+package taskdb.taskmanager.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import taskdb.taskmanager.entity.ChangeCounter;
+import taskdb.taskmanager.entity.ChangeCounterId;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.ChangeCounterRepository;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.PersonWorkloadRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+import taskdb.taskmanager.service.ChangeCounterService;
+import taskdb.taskmanager.service.TaskCounterService;
+import taskdb.taskmanager.service.TaskDeadlineService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TaskStatementBudgetTest {
+
+    private static final int PERSONS = 10;
+    private static final int TASKS = 60;
+    // the change counter row a list ETag is read from
+    private static final int ETAG = 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonWorkloadRepository personWorkloadRepository;
+
+    @Autowired
+    private ChangeCounterRepository changeCounterRepository;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskDeadlineService taskDeadlineService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Long personId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // the rows the migration seeds, so a bump costs its one update like in production
+        for (String name : List.of("task", "person")) {
+            changeCounterRepository.saveAll(IntStream.range(0, ChangeCounterService.SLOTS)
+                    .mapToObj(slot -> new ChangeCounter(new ChangeCounterId(name, slot), 0))
+                    .toList());
+        }
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(Person.builder().name("Person " + i).department("IT").build());
+        }
+        persons = personRepository.saveAll(persons);
+        personId = persons.get(0).getId();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .deadline(LocalDate.of(2025, 1, 1).plusDays(i))
+                    .department("IT")
+                    .duration(30)
+                    .status(TaskStatus.IDLE)
+                    .assignedPerson(i % 6 == 0 ? null : persons.get(i % PERSONS))
+                    .build());
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personWorkloadRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testGetAllTasks_WithinBudget() throws Exception {
+        assertStatementBudget("/api/tasks/all?size=100", 1 + ETAG);
+    }
+
+    @Test
+    void testGetAllTasks_ProjectsUnassignedTasks() throws Exception {
+        mockMvc.perform(get("/api/tasks/all?size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TASKS))
+                .andExpect(jsonPath("$[0].status").value("IDLE"))
+                .andExpect(jsonPath("$[0].assignedPersonId").doesNotExist())
+                .andExpect(jsonPath("$[1].assignedPersonId").isNumber());
+    }
+
+    @Test
+    void testGetPendingTasks_WithinBudget() throws Exception {
+        assertStatementBudget("/api/tasks/pending", 1 + ETAG);
+    }
+
+    @Test
+    void testGetRandPendingTasks_WithinBudget() throws Exception {
+        // lowest ids, highest id, then one batch of id lookups, at most 4, and a rank pick per task
+        // still missing, at most 4 per task
+        assertStatementBudget("/api/tasks/pending/rand", 2 + 4 + 3 * 4);
+    }
+
+    @Test
+    void testGetTasksByDepartment_WithinBudget() throws Exception {
+        assertStatementBudget("/api/tasks/department/it", 1 + ETAG);
+    }
+
+    @Test
+    void testGetTaskSummaries_WithinBudget() throws Exception {
+        assertStatementBudget("/api/tasks/summary", 1);
+    }
+
+    @Test
+    void testExportTasks_WithinBudget() throws Exception {
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(TASKS, body.split("\n").length);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testSaveTasksBulk_BatchesInserts() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 120; i++) {
+            body.append("{\"title\": \"Bulk ").append(i).append("\", \"description\": \"d\", ")
+                .append("\"deadline\": \"2025-08-01\", \"department\": \"IT\", \"duration\": 1, ")
+                .append("\"assignedPersonId\": ").append(i % 3 == 0 ? "null" : String.valueOf(personId))
+                .append("}\n");
+        }
+        body.append("{\"title\": \"Orphan\", \"description\": \"d\", \"deadline\": \"2025-08-01\", ")
+            .append("\"department\": \"IT\", \"assignedPersonId\": -1}\n");
+
+        statistics.clear();
+
+        mockMvc.perform(post("/api/tasks/bulk")
+                .contentType("application/x-ndjson")
+                .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(121))
+                .andExpect(jsonPath("$.saved").value(120))
+                .andExpect(jsonPath("$.errors[0].row").value(121));
+
+        assertEquals(TASKS + 120, taskRepository.count());
+        // plus the insert of the assignee's first workload row and the task counter, the workload updates are a JDBC batch
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 12, "bulk insert of 120 tasks prepared " + statements + " statements");
+    }
+
+    @Test
+    void testAssignIdleTasks_IsSetBased() throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(put("/api/tasks/assign")
+                .contentType("application/json")
+                .content("{\"department\": \"it\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assigned").value(TASKS / 6));
+
+        // tasks and candidates, the first workload row of every assignee (the tasks above bypassed the events)
+        // and the outbox insert batches; the assignments and the workload updates are JDBC batches
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2 + PERSONS + 4, "assigning " + TASKS / 6 + " tasks prepared " + statements + " statements");
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // nobody had open work on record, so every person gets one of them
+        assertEquals(PERSONS, taskRepository.findAll().stream()
+                .filter(task -> task.getAssignedPerson() != null)
+                .map(task -> task.getAssignedPerson().getId())
+                .distinct().count());
+        assertEquals(0, taskRepository.findAll().stream().filter(task -> task.getAssignedPerson() == null).count());
+    }
+
+    @Test
+    void testUpdateTaskStatuses_IsSetBased() throws Exception {
+        mockMvc.perform(put("/api/tasks/status")
+                .contentType("application/json")
+                .content("{\"status\": \"ACTIVE\", \"department\": \"it\", \"currentStatus\": \"IDLE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(TASKS));
+
+        String ids = taskRepository.findAll().stream().map(task -> task.getId().toString())
+                .collect(Collectors.joining(","));
+        statistics.clear();
+
+        mockMvc.perform(put("/api/tasks/status")
+                .contentType("application/json")
+                .content("{\"status\": \"COMPLETED\", \"ids\": [" + ids + ", -1]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(TASKS))
+                .andExpect(jsonPath("$.notFound[0]").value(-1));
+
+        // one select and one update for the tasks, one stats update per person, the outbox insert batches and
+        // the task and person counters (the workload updates are a JDBC batch)
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 2 + PERSONS + 4 + 2, "completing " + TASKS + " tasks prepared " + statements + " statements");
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        assertEquals(TASKS, taskRepository.findAll().stream()
+                .filter(task -> task.getStatus() == TaskStatus.COMPLETED && task.getFinishedAt() != null).count());
+        assertEquals(TASKS - TASKS / 6, personRepository.findAll().stream().mapToInt(Person::getTotalTasksCompleted).sum());
+    }
+
+    @Test
+    void testGetTaskReport_ReadsCountersOnly() throws Exception {
+        taskCounterService.rebuild();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/tasks/report"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Department: IT\n" +
+                        "Finished Tasks: 0\n" +
+                        "Unfinished Tasks: " + TASKS));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetOverdueTasks_WithinBudget() throws Exception {
+        taskDeadlineService.rebuild();
+
+        assertStatementBudget("/api/tasks/overdue?size=100", 1);
+        mockMvc.perform(get("/api/tasks/overdue?size=100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(TASKS))
+                .andExpect(jsonPath("$[0].title").value("Task 0"));
+    }
+
+    @Test
+    void testGetDueTasks_NothingDueRunsNoStatements() throws Exception {
+        taskDeadlineService.rebuild();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/tasks/due?within=P7D"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetAllPersons_WithinBudget() throws Exception {
+        assertStatementBudget("/api/persons/all", 1 + ETAG);
+    }
+
+    @Test
+    void testGetPersonsByDepartment_WithinBudget() throws Exception {
+        assertStatementBudget("/api/persons/department/it", 1 + ETAG);
+    }
+
+    private void assertStatementBudget(String url, long budget) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget,
+                "GET " + url + " prepared " + statements + " statements, budget is " + budget);
+        assertEquals(0, statistics.getEntityLoadCount(), "GET " + url + " hydrated managed entities");
+    }
+}
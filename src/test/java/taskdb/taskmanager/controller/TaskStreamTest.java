@@ -0,0 +1,128 @@
+package taskdb.taskmanager.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ConfigurableApplicationContext;
+import taskdb.taskmanager.TaskManagerApplication;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.service.TaskService;
+import taskdb.taskmanager.service.TaskStreamService;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Goes through a real connection, the MockMvc tests never see what actually reaches the client.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class TaskStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStreamService taskStreamService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Task task(String department) {
+        return Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department(department)
+                .duration(2)
+                .status(TaskStatus.IDLE)
+                .build();
+    }
+
+    @Test
+    void testStream_DeliversCommittedChangesOfTheDepartment() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/tasks/stream?department=SSE"))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode());
+
+        while (taskStreamService.subscriberCount() == 0) {
+            Thread.sleep(10);
+        }
+
+        taskService.save(task("OTHER"), null);
+        Long taskId = taskService.save(task("SSE"), null).orElseThrow().getId();
+        taskService.updateTaskStatus(taskId, TaskStatus.ACTIVE);
+
+        List<JsonNode> changes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            String line;
+            while (changes.size() < 2 && (line = reader.readLine()) != null) {
+                if (line.startsWith("data:")) {
+                    changes.add(objectMapper.readTree(line.substring("data:".length())));
+                }
+            }
+        }
+
+        assertEquals(taskId, changes.get(0).get("id").asLong());
+        assertEquals("SSE", changes.get(0).get("department").asText());
+        assertEquals("2025-01-01", changes.get(0).get("deadline").asText());
+        assertEquals("ACTIVE", changes.get(1).get("status").asText());
+        assertEquals("IDLE", changes.get(1).get("previousStatus").asText());
+    }
+
+    @Test
+    void testShutdown_CompletesOpenStreamsBeforeTheGracefulWait() throws Exception {
+        // an application of its own, on its own database, so closing it leaves the shared test context alone
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .run("--server.port=0",
+                        "--server.shutdown=graceful",
+                        "--spring.lifecycle.timeout-per-shutdown-phase=30s",
+                        "--spring.datasource.url=jdbc:h2:mem:shutdown;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH");
+        try {
+            String localPort = context.getEnvironment().getProperty("local.server.port");
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + localPort + "/api/tasks/stream"))
+                    .header("Accept", "text/event-stream")
+                    .build();
+            HttpResponse<InputStream> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, response.statusCode());
+
+            TaskStreamService streams = context.getBean(TaskStreamService.class);
+            while (streams.subscriberCount() == 0) {
+                Thread.sleep(10);
+            }
+
+            long start = System.nanoTime();
+            context.close();
+            Duration closing = Duration.ofNanos(System.nanoTime() - start);
+            assertTrue(closing.compareTo(Duration.ofSeconds(10)) < 0, "context took " + closing + " to close");
+
+            // the client sees the end of the stream rather than a reset connection
+            try (InputStream body = response.body()) {
+                body.readAllBytes();
+            }
+        } finally {
+            context.close();
+        }
+    }
+}
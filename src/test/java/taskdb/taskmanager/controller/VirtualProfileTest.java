@@ -0,0 +1,92 @@
+package taskdb.taskmanager.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The virtual profile turns open-in-view off, so every endpoint has to finish its lazy loading
+// inside the service transaction.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("virtual")
+public class VirtualProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int maximumPoolSize;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    private Long personId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        Person person = personRepository.save(Person.builder().name("Alice").department("IT").build());
+        personId = person.getId();
+        taskId = taskRepository.save(Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department("IT")
+                .duration(30)
+                .status(TaskStatus.IDLE)
+                .assignedPerson(person)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testProfileSettings() {
+        assertEquals(20, maximumPoolSize);
+        assertFalse(openInView);
+    }
+
+    @Test
+    void testEndpoints_WorkWithoutOpenInView() throws Exception {
+        mockMvc.perform(get("/api/tasks/all")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/" + taskId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.assignedPersonId").value(personId));
+        mockMvc.perform(get("/api/tasks/summary")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/persons/" + personId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/persons/" + personId + "/bill")).andExpect(status().isOk());
+        mockMvc.perform(put("/api/tasks/" + taskId + "/status/ACTIVE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("ACTIVE"));
+    }
+}
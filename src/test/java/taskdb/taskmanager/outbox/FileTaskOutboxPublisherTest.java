@@ -0,0 +1,50 @@
+package taskdb.taskmanager.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import taskdb.taskmanager.entity.TaskOutboxMessage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileTaskOutboxPublisherTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TaskOutboxMessage message(long id, String payload) {
+        return TaskOutboxMessage.builder()
+                .id(id)
+                .taskId(7L)
+                .changeType("UPDATED")
+                .payload(payload)
+                .createdAt(LocalDateTime.of(2025, 8, 1, 12, 0))
+                .build();
+    }
+
+    @Test
+    void testPublish_AppendsOneLinePerMessage() throws Exception {
+        Path file = directory.resolve("outbox/task-changes.ndjson");
+        FileTaskOutboxPublisher publisher = new FileTaskOutboxPublisher(file, objectMapper);
+
+        publisher.publish(List.of(message(1L, "{\"id\":7,\"status\":\"IDLE\"}")));
+        publisher.publish(List.of(message(2L, "{\"id\":7,\"status\":\"ACTIVE\"}"),
+                message(3L, "{\"id\":7,\"status\":\"COMPLETED\"}")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+
+        JsonNode last = objectMapper.readTree(lines.get(2));
+        assertEquals(3, last.get("id").asLong());
+        assertEquals("2025-08-01T12:00", last.get("createdAt").asText());
+        assertEquals("COMPLETED", last.get("task").get("status").asText());
+    }
+}
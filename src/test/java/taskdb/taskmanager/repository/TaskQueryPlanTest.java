@@ -0,0 +1,200 @@
+package taskdb.taskmanager.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs the Flyway migrations on a real Postgres, validates the entities against them and checks
+// that the hot queries are planned as index scans. The SQL mirrors what Hibernate generates for
+// the repository methods, with the same parameters bound. Postgres runs in a container, so the
+// test runs wherever Docker does, as root too (initdb refuses root on the host).
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers
+class TaskQueryPlanTest {
+
+    private static final int PERSONS = 2000;
+    private static final int TASKS = 100_000;
+    private static final int DEPARTMENTS = 50;
+
+    private static final String TASK_COLUMNS = "t.id, t.title, t.description, t.deadline, t.department, t.duration, " +
+            "t.status, t.active_at, t.finished_at, t.person_id";
+
+    private static final String PAGE_FILTERS = "WHERE (CAST(? AS varchar) IS NULL OR t.status = ?) " +
+            "AND (CAST(? AS varchar) IS NULL OR UPPER(t.department) = UPPER(?)) " +
+            "AND (CAST(? AS bigint) IS NULL OR t.person_id = ?) ";
+
+    private static final Pattern BUFFERS = Pattern.compile("Buffers: shared(?: hit=(\\d+))?(?: read=(\\d+))?");
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO person (name, department) " +
+                "SELECT 'Person ' || g, 'Dept ' || (g % ?) FROM generate_series(1, ?) g", DEPARTMENTS, PERSONS);
+        // mostly finished tasks, 1 in 10 still open
+        jdbcTemplate.update("INSERT INTO task (id, title, description, deadline, department, duration, status, person_id) " +
+                "SELECT nextval('task_seq'), 'Task ' || g, 'Description ' || g, DATE '2024-01-01' + (g % 730), " +
+                "'Dept ' || (g % ?), 1 + g % 8, " +
+                "CASE g % 20 WHEN 0 THEN 'IDLE' WHEN 1 THEN 'ACTIVE' WHEN 2 THEN 'CANCELLED' ELSE 'COMPLETED' END, " +
+                "(SELECT MIN(id) FROM person) + g % ? " +
+                "FROM generate_series(1, ?) g", DEPARTMENTS, PERSONS, TASKS);
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+
+    private String explain(String sql, Object... args) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args);
+        return String.join("\n", plan);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertTrue(plan.contains(index), plan);
+    }
+
+    @Test
+    void testFirstPage_UsesDeadlineIndex() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM task t " + PAGE_FILTERS +
+                "ORDER BY t.deadline, t.id LIMIT ?", null, null, null, null, null, null, 51);
+
+        assertUsesIndex(plan, "idx_task_deadline_id");
+    }
+
+    private static final String FIRST_PAGE = "SELECT " + TASK_COLUMNS + " FROM task t " + PAGE_FILTERS +
+            "ORDER BY t.deadline, t.id LIMIT ?";
+
+    private static final String PAGE_AFTER = "SELECT " + TASK_COLUMNS + " FROM task t " + PAGE_FILTERS +
+            "AND t.deadline >= ? AND (t.deadline, t.id) > (?, ?) " +
+            "ORDER BY t.deadline, t.id LIMIT ?";
+
+    private Object[] pageAfter(LocalDate deadline, long id) {
+        return new Object[] {null, null, null, null, null, null,
+                Date.valueOf(deadline), Date.valueOf(deadline), id, 51};
+    }
+
+    // shared buffers the whole statement touched, from the top node of EXPLAIN (ANALYZE, BUFFERS)
+    private long buffers(String plan) {
+        Matcher buffers = BUFFERS.matcher(plan);
+        assertTrue(buffers.find(), plan);
+        return (buffers.group(1) != null ? Long.parseLong(buffers.group(1)) : 0)
+                + (buffers.group(2) != null ? Long.parseLong(buffers.group(2)) : 0);
+    }
+
+    @Test
+    void testPageAfterCursor_StartsTheIndexScanAtTheCursor() {
+        String plan = explain(PAGE_AFTER, pageAfter(LocalDate.of(2025, 6, 1), 50_000L));
+
+        assertUsesIndex(plan, "idx_task_deadline_id");
+        assertTrue(plan.contains("Index Cond: ") && plan.contains("deadline >="), plan);
+    }
+
+    // the tasks before the cursor are skipped by the index, not read and filtered out
+    @Test
+    void testDeepPage_ReadsAsMuchAsTheFirstPage() {
+        String first = explain("(ANALYZE, BUFFERS) " + FIRST_PAGE, null, null, null, null, null, null, 51);
+        // more than 90% of the tasks come before this deadline
+        String deep = explain("(ANALYZE, BUFFERS) " + PAGE_AFTER, pageAfter(LocalDate.of(2025, 11, 20), 90_000L));
+
+        assertFalse(deep.contains("Rows Removed by Filter"), deep);
+        assertTrue(buffers(deep) <= 2 * buffers(first) + 10, "first page:\n" + first + "\ndeep page:\n" + deep);
+    }
+
+    @Test
+    void testOpenTasksPage_UsesPartialIndex() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM task t " +
+                "WHERE t.status IN ('IDLE', 'ACTIVE') ORDER BY t.deadline, t.id LIMIT ?", 51);
+
+        assertUsesIndex(plan, "idx_task_open_deadline");
+    }
+
+    // IDLE is also covered by the partial open task indexes, any of them will do
+    @Test
+    void testPendingTasks_UseAnIndex() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM task t WHERE t.status = ?", "IDLE");
+
+        assertUsesIndex(plan, "idx_task_");
+    }
+
+    // the random draws of /pending/rand: primary key lookups, not a scan of the tasks between them
+    @Test
+    void testRandomDraws_LookUpIds() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM task t WHERE t.id IN (?, ?, ?, ?) AND t.status = ?",
+                10L, 5_000L, 50_000L, 90_000L, "IDLE");
+
+        assertUsesIndex(plan, "task_pkey");
+    }
+
+    @Test
+    void testCountByStatus_UsesStatusIndex() {
+        String plan = explain("SELECT COUNT(t.id) FROM task t WHERE t.status = ?", "ACTIVE");
+
+        assertUsesIndex(plan, "idx_task_status_id");
+    }
+
+    @Test
+    void testTasksByDepartment_UseDepartmentIndex() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM task t WHERE UPPER(t.department) = UPPER(?)", "dept 7");
+
+        assertUsesIndex(plan, "idx_task_department_upper");
+    }
+
+    @Test
+    void testTasksByAssignee_UsePersonIndex() {
+        String plan = explain("SELECT " + TASK_COLUMNS + " FROM task t " + PAGE_FILTERS +
+                "ORDER BY t.deadline, t.id LIMIT ?", null, null, null, null, 42L, 42L, 51);
+
+        assertUsesIndex(plan, "idx_task_person_deadline_id");
+    }
+
+    @Test
+    void testPersonsByDepartment_UseDepartmentIndex() {
+        String plan = explain("SELECT p.id, p.name, p.department, p.average_task_duration, p.total_tasks_completed " +
+                "FROM person p WHERE UPPER(p.department) = UPPER(?)", "dept 7");
+
+        assertUsesIndex(plan, "idx_person_department_upper");
+    }
+
+    @Test
+    void testSearch_UsesSearchIndex() {
+        String plan = explain(TaskRepositoryCustomImpl.searchSql(false), "description 4242", null, null, null, null, 51);
+
+        assertUsesIndex(plan, "idx_task_search");
+    }
+
+    // a selective status or department may be narrowed down first instead, any index will do
+    @Test
+    void testFilteredSearchAfterCursor_UsesAnIndex() {
+        String plan = explain(TaskRepositoryCustomImpl.searchSql(true), "task 4242", "IDLE", "IDLE", "dept 42", "dept 42",
+                0.1f, 0.1f, 4242L, 51);
+
+        assertUsesIndex(plan, "idx_task_");
+    }
+}
@@ -0,0 +1,119 @@
+package taskdb.taskmanager.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import taskdb.taskmanager.dto.TaskSearchHit;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.service.TaskService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The search_vector column is generated by Postgres, so search can only be checked against a real one.
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Testcontainers
+class TaskSearchTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    private Long save(String title, String description, String department, TaskStatus status) {
+        Task task = Task.builder()
+                .title(title)
+                .description(description)
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department(department)
+                .duration(30)
+                .status(status)
+                .build();
+        return taskService.save(task, null).orElseThrow().getId();
+    }
+
+    private List<String> titles(String query, TaskStatus status, String department) {
+        return taskService.search(query, status, department, null, 50).stream()
+                .map(hit -> hit.getTask().getTitle())
+                .toList();
+    }
+
+    @Test
+    void testSearch_TitleMatchesRankAboveDescriptionMatches() {
+        save("Replace the toner", "Printer on the second floor", "TI", TaskStatus.IDLE);
+        save("Printer jam", "Paper stuck in the tray", "TI", TaskStatus.IDLE);
+        save("Order chairs", "Five for the meeting room", "TI", TaskStatus.IDLE);
+
+        assertEquals(List.of("Printer jam", "Replace the toner"), titles("printer", null, null));
+        assertEquals(List.of("Printer jam"), titles("printer paper", null, null));
+        assertEquals(List.of("Replace the toner"), titles("printer -jam", null, null));
+        assertEquals(List.of(), titles("scanner", null, null));
+    }
+
+    @Test
+    void testSearch_FiltersByStatusAndDepartment() {
+        save("Printer jam", "Paper stuck", "TI", TaskStatus.IDLE);
+        save("Printer toner", "Black cartridge", "TI", TaskStatus.COMPLETED);
+        save("Printer budget", "Next year", "Finance", TaskStatus.IDLE);
+
+        assertEquals(List.of("Printer jam"), titles("printer", TaskStatus.IDLE, "ti"));
+        assertEquals(List.of("Printer toner"), titles("printer", TaskStatus.COMPLETED, null));
+        assertEquals(List.of("Printer budget"), titles("printer", null, "FINANCE"));
+    }
+
+    @Test
+    void testSearch_CursorWalksEveryHitOnce() {
+        List<Long> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // some in the title, some only in the description, so the pages cross rank boundaries
+            saved.add(i % 2 == 0
+                    ? save("Printer " + i, "Check it", "TI", TaskStatus.IDLE)
+                    : save("Check " + i, "The printer", "TI", TaskStatus.IDLE));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        List<TaskSearchHit> page = taskService.search("printer", null, null, null, 3);
+        while (!page.isEmpty()) {
+            page.forEach(hit -> seen.add(hit.getTask().getId()));
+            page = taskService.search("printer", null, null, page.get(page.size() - 1).toCursor(), 3);
+        }
+
+        assertEquals(saved.size(), seen.size());
+        assertTrue(seen.containsAll(saved));
+    }
+
+    @Test
+    void testSearch_FollowsEdits() {
+        Long id = save("Printer jam", "Paper stuck", "TI", TaskStatus.IDLE);
+
+        Task task = taskService.getById(id).orElseThrow();
+        task.setTitle("Scanner jam");
+        taskService.save(task, null);
+
+        assertEquals(List.of(), titles("printer", null, null));
+        assertEquals(List.of("Scanner jam"), titles("scanner", null, null));
+    }
+}
@@ -0,0 +1,187 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.TaskAssignmentDTO;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.PersonWorkloadRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ChangeCounterServiceTest {
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonWorkloadRepository personWorkloadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personWorkloadRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    private Task task() {
+        return Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department("IT")
+                .duration(30)
+                .status(TaskStatus.IDLE)
+                .build();
+    }
+
+    private long version(Long taskId) {
+        return taskService.getVersion(taskId).orElseThrow();
+    }
+
+    @Test
+    void testCounters_OnlyMoveOnCommit() {
+        long tasks = changeCounterService.getTaskChanges();
+        long persons = changeCounterService.getPersonChanges();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.save(task(), null);
+            personService.recordCompletions(1L, 1, 30);
+            assertEquals(tasks, changeCounterService.getTaskChanges());
+            assertEquals(persons, changeCounterService.getPersonChanges());
+            status.setRollbackOnly();
+        });
+        assertEquals(tasks, changeCounterService.getTaskChanges());
+        assertEquals(persons, changeCounterService.getPersonChanges());
+
+        taskService.save(task(), null);
+        personService.savePerson(Person.builder().name("Alice").department("IT").build());
+        assertEquals(tasks + 1, changeCounterService.getTaskChanges());
+        assertEquals(persons + 1, changeCounterService.getPersonChanges());
+    }
+
+    @Test
+    void testDeletePerson_CountsTheCascadedTasks() {
+        Person alice = personService.savePerson(Person.builder().name("Alice").department("IT").build());
+        taskService.save(task(), alice.getId());
+        long tasks = changeCounterService.getTaskChanges();
+
+        personService.deletePerson(alice.getId());
+
+        assertEquals(tasks + 1, changeCounterService.getTaskChanges());
+    }
+
+    @Test
+    void testCounters_SharedThroughTheDatabase() {
+        taskService.save(task(), null);
+        long tasks = changeCounterService.getTaskChanges();
+
+        // a change committed by another instance
+        jdbcTemplate.update("UPDATE change_counter SET changes = changes + 1 WHERE name = 'task' " +
+                "AND slot = (SELECT MIN(slot) FROM change_counter WHERE name = 'task')");
+
+        assertEquals(tasks + 1, changeCounterService.getTaskChanges());
+    }
+
+    @Test
+    void testOtherTaskChanges_OnlyCountOtherInstances() {
+        long others = changeCounterService.getOtherTaskChanges();
+
+        taskService.save(task(), null);
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.save(task(), null);
+            status.setRollbackOnly();
+        });
+        assertEquals(others, changeCounterService.getOtherTaskChanges());
+
+        // a change committed by another instance
+        jdbcTemplate.update("UPDATE change_counter SET changes = changes + 1 WHERE name = 'task' " +
+                "AND slot = (SELECT MIN(slot) FROM change_counter WHERE name = 'task')");
+
+        assertEquals(others + 1, changeCounterService.getOtherTaskChanges());
+    }
+
+    @Test
+    void testCounters_BumpedOncePerTransaction() {
+        long tasks = changeCounterService.getTaskChanges();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.save(task(), null);
+            taskService.save(task(), null);
+        });
+
+        assertEquals(tasks + 1, changeCounterService.getTaskChanges());
+    }
+
+    @Test
+    void testCounters_SlotsAddUpToEveryConcurrentWrite() throws Exception {
+        long tasks = changeCounterService.getTaskChanges();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> taskService.save(task(), null)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(tasks + 200, changeCounterService.getTaskChanges());
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM change_counter WHERE name = 'task'", Integer.class) > 1);
+    }
+
+    @Test
+    void testVersions_BumpedByEveryWrite() {
+        Person alice = personService.savePerson(Person.builder().name("Alice").department("IT").build());
+        Long taskId = taskService.save(task(), null).orElseThrow().getId();
+        assertEquals(0, version(taskId));
+
+        taskService.assignIdleTasks(new TaskAssignmentDTO(List.of(taskId), null));
+        assertEquals(1, version(taskId));
+
+        taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder().ids(List.of(taskId)).status(TaskStatus.ACTIVE).build());
+        assertEquals(2, version(taskId));
+
+        taskService.updateTaskStatus(taskId, TaskStatus.COMPLETED);
+        assertEquals(3, version(taskId));
+        assertEquals(alice.getVersion() + 1, personRepository.findById(alice.getId()).orElseThrow().getVersion());
+    }
+}
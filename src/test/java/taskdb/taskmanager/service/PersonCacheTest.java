@@ -0,0 +1,164 @@
+package taskdb.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import taskdb.taskmanager.config.CachingConfig;
+import taskdb.taskmanager.dto.PersonSnapshot;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersonCacheTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long personId;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CachingConfig.PERSONS).clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        personId = personRepository.save(Person.builder().name("Alice").department("IT").build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        return (Cache<Object, Object>) cacheManager.getCache(CachingConfig.PERSONS).getNativeCache();
+    }
+
+    @Test
+    void testGetPersonSnapshot_SecondLookupHitsCache() {
+        long hits = nativeCache().stats().hitCount();
+        assertTrue(personService.getPersonSnapshot(personId).isPresent());
+
+        statistics.clear();
+        assertEquals("Alice", personService.getPersonSnapshot(personId).get().getName());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hits + 1, nativeCache().stats().hitCount());
+    }
+
+    @Test
+    void testGetPersonSnapshot_MissingIsNotCached() {
+        assertTrue(personService.getPersonSnapshot(-1L).isEmpty());
+        assertNull(nativeCache().getIfPresent(-1L));
+    }
+
+    @Test
+    void testAlterData_EvictsEntry() {
+        personService.getPersonSnapshot(personId);
+
+        personService.alterData(personId, Person.builder().name("Alicia").department("HR").build());
+
+        assertEquals("Alicia", personService.getPersonSnapshot(personId).get().getName());
+    }
+
+    @Test
+    void testDeletePerson_EvictsEntry() {
+        personService.getPersonSnapshot(personId);
+
+        personService.deletePerson(personId);
+
+        assertTrue(personService.getPersonSnapshot(personId).isEmpty());
+    }
+
+    @Test
+    void testSavePerson_EvictsEntry() {
+        long version = personService.getPersonSnapshot(personId).get().getVersion();
+
+        personService.savePerson(Person.builder().id(personId).name("Alicia").department("IT").build());
+
+        PersonSnapshot cached = personService.getPersonSnapshot(personId).get();
+        assertEquals("Alicia", cached.getName());
+        assertEquals(version + 1, cached.getVersion());
+    }
+
+    // entities are not cached, a caller changing the one it got can't change what the next caller reads
+    @Test
+    void testGetPersonById_IsNotCached() {
+        personService.getPersonSnapshot(personId);
+
+        personService.getPersonById(personId).orElseThrow().setName("Changed outside any transaction");
+
+        assertEquals("Alice", personService.getPersonById(personId).orElseThrow().getName());
+        assertFalse(nativeCache().asMap().values().stream().anyMatch(Person.class::isInstance));
+    }
+
+    @Test
+    void testSaveTask_AssignsACachedPersonWithoutLoadingIt() {
+        personService.getPersonSnapshot(personId);
+
+        statistics.clear();
+        Task task = taskService.save(Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.now())
+                .department("IT")
+                .duration(1)
+                .status(TaskStatus.IDLE)
+                .build(), personId).orElseThrow();
+
+        assertEquals(personId, task.getAssignedPerson().getId());
+        assertEquals(0, statistics.getEntityStatistics(Person.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void testUpdateTaskStatus_EvictsAssigneeAfterCompletion() {
+        Person person = personRepository.findById(personId).orElseThrow();
+        Task task = taskRepository.save(Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.now())
+                .department("IT")
+                .duration(1)
+                .status(TaskStatus.ACTIVE)
+                .activeAt(LocalDateTime.now().minusMinutes(15))
+                .assignedPerson(person)
+                .build());
+
+        taskService.updateTaskStatus(task.getId(), TaskStatus.COMPLETED);
+
+        PersonSnapshot updated = personService.getPersonSnapshot(personId).get();
+        assertEquals(1, updated.getTotalTasksCompleted());
+        assertEquals(15, personRepository.findById(personId).orElseThrow().getTotalTaskMinutes());
+    }
+}
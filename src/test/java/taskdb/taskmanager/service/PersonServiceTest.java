@@ -5,8 +5,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.PersonSnapshot;
 import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
 import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
 
 import java.util.Arrays;
 import java.util.List;
@@ -21,21 +28,31 @@ class PersonServiceTest {
     @Mock
     private PersonRepository personRepository;
 
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ChangeCounterService changeCounterService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PersonService personService;
 
     @Test
     void testGetAllPersons() {
-        List<Person> people = Arrays.asList(
-                Person.builder().id(1L).name("Alice").build(),
-                Person.builder().id(2L).name("Bob").build()
+        List<PersonDTO> people = Arrays.asList(
+                PersonDTO.builder().id(1L).name("Alice").build(),
+                PersonDTO.builder().id(2L).name("Bob").build()
         );
 
-        when(personRepository.findAll()).thenReturn(people);
+        when(personRepository.findAllDTOs()).thenReturn(people);
 
-        List<Person> result = personService.getAllPersons();
+        List<PersonDTO> result = personService.getAllPersons();
         assertEquals(2, result.size());
         assertEquals("Alice", result.get(0).getName());
+        verify(personRepository, never()).findAll();
     }
 
     @Test
@@ -56,6 +73,16 @@ class PersonServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void testGetPersonSnapshot_Found() {
+        PersonSnapshot person = PersonSnapshot.builder().id(1L).name("Alice").version(3).build();
+        when(personRepository.findSnapshotById(1L)).thenReturn(Optional.of(person));
+
+        Optional<PersonSnapshot> result = personService.getPersonSnapshot(1L);
+        assertEquals(3, result.orElseThrow().getVersion());
+        verify(personRepository, never()).findById(any());
+    }
+
     @Test
     void testSavePerson() {
         Person person = Person.builder().name("Alice").build();
@@ -65,12 +92,72 @@ class PersonServiceTest {
 
         Person result = personService.savePerson(person);
         assertEquals(1L, result.getId());
+        verify(changeCounterService).personsChanged();
+    }
+
+    @Test
+    void testSavePerson_WithIdOverwritesStoredVersion() {
+        Person stored = Person.builder().id(1L).name("Old").version(4).build();
+        Person person = Person.builder().id(1L).name("Alice").build();
+        when(personRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(stored));
+        when(personRepository.save(person)).thenReturn(person);
+
+        personService.savePerson(person);
+
+        assertEquals(4, person.getVersion());
+    }
+
+    @Test
+    void testSavePerson_WithIdKeepsStoredCompletionStats() {
+        Person stored = Person.builder().id(1L).name("Old").averageTaskDuration(30).totalTasksCompleted(4).totalTaskMinutes(120).build();
+        Person person = Person.builder().id(1L).name("Alice").averageTaskDuration(1).build();
+        when(personRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(stored));
+        when(personRepository.save(person)).thenReturn(person);
+
+        personService.savePerson(person);
+
+        assertEquals("Alice", person.getName());
+        assertEquals(30, person.getAverageTaskDuration());
+        assertEquals(4, person.getTotalTasksCompleted());
+        assertEquals(120, person.getTotalTaskMinutes());
+    }
+
+    @Test
+    void testSavePerson_WithUnknownIdCreatesPerson() {
+        Person person = Person.builder().id(9L).name("Alice").build();
+        when(personRepository.findByIdForUpdate(9L)).thenReturn(Optional.empty());
+        when(personRepository.save(person)).thenReturn(person);
+
+        personService.savePerson(person);
+
+        assertNull(person.getId());
     }
 
     @Test
     void testDeletePerson() {
+        Person person = Person.builder().id(1L).build();
+        when(personRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(person));
+
+        personService.deletePerson(1L);
+        verify(personRepository, times(1)).delete(person);
+        verify(taskRepository, never()).deleteByAssignedPersonId(any());
+        verify(changeCounterService).personsChanged();
+    }
+
+    @Test
+    void testDeletePerson_PublishesEveryTaskDelete() {
+        TaskSnapshot first = TaskSnapshot.builder().id(3L).assignedPersonId(1L).status(TaskStatus.IDLE).build();
+        TaskSnapshot second = TaskSnapshot.builder().id(5L).assignedPersonId(1L).status(TaskStatus.ACTIVE).build();
+        Person person = Person.builder().id(1L).build();
+        when(taskRepository.findSnapshotsForUpdate(null, null, 1L)).thenReturn(List.of(first, second));
+        when(personRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(person));
+
         personService.deletePerson(1L);
-        verify(personRepository, times(1)).deleteById(1L);
+
+        verify(taskRepository).deleteByAssignedPersonId(1L);
+        verify(personRepository).delete(person);
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(first, null));
+        verify(eventPublisher).publishEvent(new TaskChangedEvent(second, null));
     }
 
     @Test
@@ -79,7 +166,7 @@ class PersonServiceTest {
         Person update = Person.builder().name("New").department("NewDept").build();
         Person saved = Person.builder().id(1L).name("New").department("NewDept").build();
 
-        when(personRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(personRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(existing));
         when(personRepository.save(any(Person.class))).thenReturn(saved);
 
         Optional<Person> result = personService.alterData(1L, update);
@@ -90,7 +177,7 @@ class PersonServiceTest {
 
     @Test
     void testAlterData_NotFound() {
-        when(personRepository.findById(1L)).thenReturn(Optional.empty());
+        when(personRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         Optional<Person> result = personService.alterData(1L, Person.builder().name("X").build());
 
@@ -99,12 +186,19 @@ class PersonServiceTest {
 
     @Test
     void testFindByDepartment() {
-        List<Person> people = List.of(Person.builder().id(1L).name("Alice").department("IT").build());
-        when(personRepository.findByDepartment("IT")).thenReturn(people);
+        List<PersonDTO> people = List.of(PersonDTO.builder().id(1L).name("Alice").department("IT").build());
+        when(personRepository.findDTOsByDepartment("IT")).thenReturn(people);
 
-        List<Person> result = personService.findByDepartment("IT");
+        List<PersonDTO> result = personService.findByDepartment("IT");
 
         assertEquals(1, result.size());
         assertEquals("IT", result.get(0).getDepartment());
     }
+
+    @Test
+    void testRecordCompletion() {
+        personService.recordCompletion(1L, 45L);
+
+        verify(personRepository).recordCompletions(1L, 1, 45L);
+    }
 }
@@ -0,0 +1,206 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersonStatsConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int TASKS = 400;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    private List<Long> createActiveTasks(Person person, int count, LocalDateTime activeAt) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                    .title("Task " + i)
+                    .description("Description")
+                    .deadline(LocalDate.now())
+                    .department("IT")
+                    .duration(10)
+                    .status(TaskStatus.ACTIVE)
+                    .activeAt(activeAt)
+                    .assignedPerson(person)
+                    .build());
+        }
+        return taskRepository.saveAll(tasks).stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void testConcurrentCompletions_NoLostUpdates() throws Exception {
+        Person person = personRepository.save(Person.builder().name("Busy").department("IT").build());
+        List<Long> taskIds = createActiveTasks(person, TASKS, LocalDateTime.now().minusMinutes(10));
+
+        // every task is completed twice, by two different threads
+        List<Long> completions = new ArrayList<>(taskIds);
+        completions.addAll(taskIds);
+        Collections.shuffle(completions);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Long taskId : completions) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return taskService.updateTaskStatus(taskId, TaskStatus.COMPLETED);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Person updated = personRepository.findById(person.getId()).orElseThrow();
+        assertEquals(TASKS, updated.getTotalTasksCompleted());
+        assertEquals(TASKS * 10L, updated.getTotalTaskMinutes());
+        assertEquals(10.0, updated.getAverageTaskDuration(), 0.0001);
+    }
+
+    @Test
+    void testEditsRacingCompletions_DoNotFailTheVersionCheck() throws Exception {
+        Person person = personRepository.save(Person.builder().name("Busy").department("IT").build());
+        Person other = personRepository.save(Person.builder().name("Other").department("IT").build());
+        List<Long> taskIds = createActiveTasks(person, TASKS / 4, LocalDateTime.now().minusMinutes(10));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < taskIds.size(); i++) {
+                Long taskId = taskIds.get(i);
+                String name = "Busy " + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return taskService.updateTaskStatus(taskId, TaskStatus.COMPLETED);
+                }));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return personService.alterData(person.getId(), Person.builder().name(name).department("IT").build());
+                }));
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return taskService.updateAssignedPerson(taskId, other.getId());
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Person updated = personRepository.findById(person.getId()).orElseThrow();
+        assertTrue(updated.getName().startsWith("Busy "));
+        assertEquals(TASKS / 4, updated.getTotalTasksCompleted() + personRepository.findById(other.getId()).orElseThrow().getTotalTasksCompleted());
+    }
+
+    @Test
+    void testCompletion_KeepsRunningAverage() {
+        Person person = personRepository.save(Person.builder()
+                .name("Veteran")
+                .department("IT")
+                .totalTasksCompleted(2)
+                .averageTaskDuration(30.0)
+                .totalTaskMinutes(60)
+                .build());
+        Long taskId = createActiveTasks(person, 1, LocalDateTime.now().minusMinutes(60)).get(0);
+
+        taskService.updateTaskStatus(taskId, TaskStatus.COMPLETED);
+
+        Person updated = personRepository.findById(person.getId()).orElseThrow();
+        assertEquals(3, updated.getTotalTasksCompleted());
+        assertEquals(120, updated.getTotalTaskMinutes());
+        // average duration: ((30 * 2) + 60) / 3 = 40
+        assertEquals(40.0, updated.getAverageTaskDuration(), 0.0001);
+    }
+
+    // a stored average that drifted from the minutes (33 instead of 100 / 3) is not carried over
+    @Test
+    void testCompletion_AverageFollowsTheTotalMinutes() {
+        Person person = personRepository.save(Person.builder()
+                .name("Veteran")
+                .department("IT")
+                .totalTasksCompleted(3)
+                .averageTaskDuration(33.0)
+                .totalTaskMinutes(100)
+                .build());
+        Long taskId = createActiveTasks(person, 1, LocalDateTime.now().minusMinutes(10)).get(0);
+
+        taskService.updateTaskStatus(taskId, TaskStatus.COMPLETED);
+
+        Person updated = personRepository.findById(person.getId()).orElseThrow();
+        assertEquals(110, updated.getTotalTaskMinutes());
+        assertEquals(110 / 4.0, updated.getAverageTaskDuration(), 0.0001);
+    }
+
+    @Test
+    void testBulkCompletion_FoldsIntoRunningAverage() {
+        Person person = personRepository.save(Person.builder()
+                .name("Veteran")
+                .department("IT")
+                .totalTasksCompleted(2)
+                .averageTaskDuration(30.0)
+                .totalTaskMinutes(60)
+                .build());
+        List<Long> taskIds = new ArrayList<>(createActiveTasks(person, 2, LocalDateTime.now().minusMinutes(60)));
+        taskIds.addAll(createActiveTasks(person, 2, LocalDateTime.now().minusMinutes(90)));
+        taskIds.addAll(createActiveTasks(null, 1, LocalDateTime.now().minusMinutes(90)));
+
+        // completed twice: the second call must not count the tasks again
+        for (int i = 0; i < 2; i++) {
+            taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                    .status(TaskStatus.COMPLETED)
+                    .ids(taskIds)
+                    .build());
+        }
+
+        Person updated = personRepository.findById(person.getId()).orElseThrow();
+        assertEquals(6, updated.getTotalTasksCompleted());
+        assertEquals(360, updated.getTotalTaskMinutes());
+        // average duration: ((30 * 2) + 60 + 60 + 90 + 90) / 6 = 60
+        assertEquals(60.0, updated.getAverageTaskDuration(), 0.0001);
+    }
+}
@@ -0,0 +1,160 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.PersonWorkloadDTO;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.PersonWorkloadRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PersonWorkloadServiceTest {
+
+    @Autowired
+    private PersonWorkloadService personWorkloadService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonWorkloadRepository personWorkloadRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        personWorkloadRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    private Person person(String name, String department) {
+        return personRepository.save(Person.builder().name(name).department(department).build());
+    }
+
+    private Task task(int duration) {
+        return Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department("IT")
+                .duration(duration)
+                .status(TaskStatus.IDLE)
+                .build();
+    }
+
+    private PersonWorkloadDTO workload(Person person) {
+        return personWorkloadService.getWorkload(person.getId()).orElseThrow();
+    }
+
+    @Test
+    void testWorkload_FollowsTaskChanges() {
+        Person alice = person("Alice", "IT");
+        Person bob = person("Bob", "IT");
+
+        Long first = taskService.save(task(30), alice.getId()).orElseThrow().getId();
+        Long second = taskService.save(task(45), alice.getId()).orElseThrow().getId();
+        assertEquals(2, workload(alice).getIdleTasks());
+        assertEquals(75, workload(alice).getOpenDuration());
+
+        taskService.updateTaskStatus(first, TaskStatus.ACTIVE);
+        assertEquals(1, workload(alice).getIdleTasks());
+        assertEquals(1, workload(alice).getActiveTasks());
+
+        taskService.updateAssignedPerson(second, bob.getId());
+        assertEquals(30, workload(alice).getOpenDuration());
+        assertEquals(1, workload(bob).getIdleTasks());
+        assertEquals(45, workload(bob).getOpenDuration());
+
+        taskService.updateTaskStatus(first, TaskStatus.COMPLETED);
+        taskService.delete(second);
+
+        PersonWorkloadDTO done = workload(alice);
+        assertEquals(0, done.getIdleTasks() + done.getActiveTasks());
+        assertEquals(0, done.getOpenDuration());
+        assertEquals(1, done.getCompletedTasks());
+        assertEquals(0, workload(bob).getOpenDuration());
+    }
+
+    @Test
+    void testWorkload_RolledBackChangeIsNotCounted() {
+        Person alice = person("Alice", "IT");
+        taskService.save(task(30), alice.getId());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.save(task(60), alice.getId());
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, workload(alice).getIdleTasks());
+        assertEquals(30, workload(alice).getOpenDuration());
+    }
+
+    @Test
+    void testWorkload_FirstChangeCountsExistingTasks() {
+        Person alice = person("Alice", "IT");
+        // written straight to the table, nothing was recorded for them
+        Task existing = task(20);
+        existing.setAssignedPerson(alice);
+        taskRepository.saveAll(List.of(existing, task(999)));
+
+        taskService.save(task(30), alice.getId());
+
+        assertEquals(2, workload(alice).getIdleTasks());
+        assertEquals(50, workload(alice).getOpenDuration());
+    }
+
+    @Test
+    void testWorkload_BulkStatusChange() {
+        Person alice = person("Alice", "IT");
+        Person bob = person("Bob", "IT");
+        for (int i = 0; i < 5; i++) {
+            taskService.save(task(10), alice.getId());
+            taskService.save(task(20), bob.getId());
+        }
+
+        taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                .status(TaskStatus.ACTIVE)
+                .assigneeId(alice.getId())
+                .build());
+
+        assertEquals(0, workload(alice).getIdleTasks());
+        assertEquals(5, workload(alice).getActiveTasks());
+        assertEquals(50, workload(alice).getOpenDuration());
+        assertEquals(5, workload(bob).getIdleTasks());
+    }
+
+    @Test
+    void testGetWorkloadsByDepartment_IncludesPersonsWithoutTasks() {
+        Person alice = person("Alice", "IT");
+        person("Bob", "IT");
+        person("Carol", "HR");
+        taskService.save(task(30), alice.getId());
+
+        List<PersonWorkloadDTO> workloads = personWorkloadService.getWorkloadsByDepartment("it");
+
+        assertEquals(List.of("Alice", "Bob"), workloads.stream().map(PersonWorkloadDTO::getName).toList());
+        assertEquals(1, workloads.get(0).getIdleTasks());
+        assertEquals(0, workloads.get(1).getIdleTasks());
+        assertTrue(personWorkloadService.getWorkload(-1L).isEmpty());
+    }
+}
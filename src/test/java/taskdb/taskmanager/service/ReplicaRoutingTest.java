@@ -0,0 +1,192 @@
+package taskdb.taskmanager.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import taskdb.taskmanager.dto.PersonDTO;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.datasource.ReadYourWritesTracker;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.PersonWorkloadRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two H2 databases stand in for the primary and its replica; nothing replicates between them,
+// so which one answered shows where the work went. The mock requests stand in for clients.
+@SpringBootTest(properties = {
+        "taskmanager.datasource.replica.jdbc-url=jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "taskmanager.datasource.replica.username=sa",
+        "taskmanager.datasource.read-your-writes=PT1M"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskOutboxService taskOutboxService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonWorkloadRepository personWorkloadRepository;
+
+    @Autowired
+    private ChangeCounterService changeCounterService;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        replica.update("INSERT INTO person (id, name, department, average_task_duration, total_tasks_completed, " +
+                "total_task_minutes, version) VALUES (900, 'Replica', 'IT', 0, 0, 0, 0)");
+        replica.update("INSERT INTO task (id, title, description, deadline, department, duration, status, person_id, version) " +
+                "VALUES (901, 'Replicated task', 'Description', DATE '2025-01-01', 'IT', 30, 'IDLE', 900, 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        taskRepository.deleteAllInBatch();
+        personWorkloadRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    private List<String> personNames() {
+        return personService.getAllPersons().stream().map(PersonDTO::getName).toList();
+    }
+
+    private MockHttpServletResponse request(Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    @Test
+    void testReadOnlyWork_GoesToTheReplica() {
+        Person alice = personService.savePerson(Person.builder().name("Alice").department("IT").build());
+
+        // a write outside of any request (a scheduled job, the relay) keeps nobody on the primary
+        assertEquals(List.of("Replica"), personNames());
+        assertEquals(List.of("Replica"), personService.findByDepartment("it").stream().map(PersonDTO::getName).toList());
+        assertEquals(List.of(901L), taskService.getPage(null, null, 900L, null, 10).stream().map(TaskDTO::getId).toList());
+        assertEquals(0, changeCounterService.getPersonChanges());
+
+        // the write itself went to the primary only, its change counter with it
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM person WHERE id = ?", Integer.class, alice.getId()));
+        assertTrue(primary.queryForObject("SELECT SUM(changes) FROM change_counter WHERE name = 'person'", Long.class) > 0);
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM person WHERE id = ?", Integer.class, alice.getId()));
+    }
+
+    // the replica would put the old row back in the cache right after the eviction
+    @Test
+    void testPersonCache_IsFilledFromThePrimary() {
+        Person alice = personService.savePerson(Person.builder().name("Alice").department("IT").build());
+        replica.update("INSERT INTO person (id, name, department, average_task_duration, total_tasks_completed, " +
+                "total_task_minutes, version) VALUES (?, 'Stale Alice', 'IT', 0, 0, 0, 0)", alice.getId());
+
+        personService.alterData(alice.getId(), Person.builder().name("Alicia").department("IT").build());
+
+        assertEquals("Alicia", personService.getPersonSnapshot(alice.getId()).orElseThrow().getName());
+        // other read-only work still goes to the replica
+        assertTrue(personNames().contains("Stale Alice"));
+    }
+
+    @Test
+    void testReadYourWrites_StaysOnThePrimaryForTheClientThatWrote() {
+        MockHttpServletResponse write = request();
+        personService.savePerson(Person.builder().name("Alice").department("IT").build());
+
+        Cookie cookie = write.getCookie(ReadYourWritesTracker.COOKIE);
+        assertNotNull(cookie);
+        assertTrue(readYourWritesTracker.recentlyWritten());
+        assertEquals(List.of("Alice"), personNames());
+
+        request(cookie);
+        assertEquals(List.of("Alice"), personNames());
+
+        // another client never wrote anything
+        request();
+        assertEquals(List.of("Replica"), personNames());
+    }
+
+    @Test
+    void testReadOnlyTransaction_DoesNotKeepTheClientOnThePrimary() {
+        MockHttpServletResponse response = request();
+
+        assertEquals(List.of("Replica"), personNames());
+        assertNull(response.getCookie(ReadYourWritesTracker.COOKIE));
+        assertFalse(readYourWritesTracker.recentlyWritten());
+    }
+
+    @Test
+    void testOutboxRelay_DoesNotKeepAnybodyOnThePrimary() {
+        taskOutboxService.relay();
+
+        MockHttpServletResponse response = request();
+        assertEquals(List.of("Replica"), personNames());
+        assertNull(response.getCookie(ReadYourWritesTracker.COOKIE));
+    }
+
+    @Test
+    void testCookie_IsOnlyTrustedForOneWindow() {
+        long now = System.currentTimeMillis();
+
+        request(new Cookie(ReadYourWritesTracker.COOKIE, Long.toString(now - 1)));
+        assertFalse(readYourWritesTracker.recentlyWritten());
+
+        request(new Cookie(ReadYourWritesTracker.COOKIE, Long.toString(now + Duration.ofDays(1).toMillis())));
+        assertFalse(readYourWritesTracker.recentlyWritten());
+
+        request(new Cookie(ReadYourWritesTracker.COOKIE, "not a time"));
+        assertFalse(readYourWritesTracker.recentlyWritten());
+    }
+
+    @Test
+    void testZeroWindow_AlwaysReadsFromTheReplica() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ZERO);
+
+        request(new Cookie(ReadYourWritesTracker.COOKIE, Long.toString(System.currentTimeMillis() + 1000)));
+        assertFalse(tracker.recentlyWritten());
+    }
+}
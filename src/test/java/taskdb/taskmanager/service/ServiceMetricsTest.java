@@ -0,0 +1,117 @@
+package taskdb.taskmanager.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.metrics.ServiceMetricsAspect;
+import taskdb.taskmanager.metrics.StatementCountInterceptor;
+import taskdb.taskmanager.repository.PersonRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ServiceMetricsTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        personRepository.deleteAllInBatch();
+    }
+
+    private long count(String service, String operation, String outcome) {
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.SERVICE_TIMER)
+                .tags("service", service, "operation", operation, "outcome", outcome)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    @Test
+    void testServiceCalls_TimedByOperationAndOutcome() {
+        long successes = count("TaskService", "getByStatus", "success");
+        long empties = count("PersonService", "getPersonById", "empty");
+        long errors = count("TaskService", "getPage", "error");
+
+        taskService.getByStatus(TaskStatus.IDLE);
+        personService.getPersonById(-1L);
+        assertThrows(IllegalArgumentException.class, () -> taskService.getPage(null, null, null, null, 0));
+
+        assertEquals(successes + 1, count("TaskService", "getByStatus", "success"));
+        assertEquals(empties + 1, count("PersonService", "getPersonById", "empty"));
+        assertEquals(errors + 1, count("TaskService", "getPage", "error"));
+        assertNotNull(meterRegistry.find(ServiceMetricsAspect.SERVICE_TIMER)
+                .tags("operation", "getPage", "exception", "IllegalArgumentException")
+                .timer());
+    }
+
+    @Test
+    void testRequests_RecordStatementCount() throws Exception {
+        Long personId = personRepository.save(Person.builder().name("Alice").department("IT").build()).getId();
+
+        mockMvc.perform(get("/api/persons/" + personId + "/bill")).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find(StatementCountInterceptor.STATEMENTS_SUMMARY)
+                .tags("method", "GET", "uri", "/api/persons/{id}/bill")
+                .summary();
+        assertNotNull(statements);
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() <= 1);
+    }
+
+    private DistributionSummary statements(String uri) {
+        return meterRegistry.find(StatementCountInterceptor.STATEMENTS_SUMMARY)
+                .tags("method", "GET", "uri", uri)
+                .summary();
+    }
+
+    @Test
+    void testRequests_CountJdbcTemplateStatements() throws Exception {
+        mockMvc.perform(get("/api/tasks/analytics").param("from", "2025-01-01").param("to", "2025-01-31"))
+                .andExpect(status().isOk());
+
+        DistributionSummary analytics = statements("/api/tasks/analytics");
+        assertNotNull(analytics);
+        assertEquals(1, analytics.max());
+    }
+
+    @Test
+    void testRequests_CountStatementsOfStreamedResponses() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        // written on the async executor, recorded when the request completes
+        DistributionSummary export = statements("/api/tasks/export");
+        assertNotNull(export);
+        assertEquals(1, export.max());
+    }
+}
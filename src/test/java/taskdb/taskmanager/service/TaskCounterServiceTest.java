@@ -0,0 +1,155 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskCounterServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ChangeCounterService changeCounterService;
+
+    @InjectMocks
+    private TaskCounterService taskCounterService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private TaskSnapshot snapshot(String department, TaskStatus status) {
+        return TaskSnapshot.builder().id(1L).department(department).status(status).build();
+    }
+
+    @Test
+    void testOnTaskChanged_CreateMoveDelete() {
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.IDLE)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.IDLE)));
+        assertEquals(2, taskCounterService.count("IT", TaskStatus.IDLE));
+
+        taskCounterService.onTaskChanged(new TaskChangedEvent(snapshot("IT", TaskStatus.IDLE), snapshot("IT", TaskStatus.COMPLETED)));
+        assertEquals(1, taskCounterService.count("IT", TaskStatus.IDLE));
+        assertEquals(1, taskCounterService.count("IT", TaskStatus.COMPLETED));
+
+        taskCounterService.onTaskChanged(new TaskChangedEvent(snapshot("IT", TaskStatus.COMPLETED), null));
+        assertEquals(0, taskCounterService.count("IT", TaskStatus.COMPLETED));
+        assertEquals(0, taskCounterService.count("HR", TaskStatus.IDLE));
+    }
+
+    @Test
+    void testCount_StatusAddsUpTheDepartments() {
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.IDLE)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("HR", TaskStatus.IDLE)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("HR", TaskStatus.ACTIVE)));
+
+        assertEquals(2, taskCounterService.count(TaskStatus.IDLE));
+        assertEquals(0, taskCounterService.count(TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void testGetReport_FinishedCountsCompletedAndCancelled() {
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.COMPLETED)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.CANCELLED)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.ACTIVE)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("HR", TaskStatus.IDLE)));
+
+        List<Object[]> report = taskCounterService.getReport();
+
+        assertEquals(2, report.size());
+        assertArrayEquals(new Object[] {"HR", 0L, 1L}, report.get(0));
+        assertArrayEquals(new Object[] {"IT", 2L, 1L}, report.get(1));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void testGetReport_SkipsEmptyDepartments() {
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("IT", TaskStatus.IDLE)));
+        taskCounterService.onTaskChanged(new TaskChangedEvent(snapshot("IT", TaskStatus.IDLE), null));
+
+        assertTrue(taskCounterService.getReport().isEmpty());
+    }
+
+    @Test
+    void testRebuild_ReplacesCountersFromRepository() {
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, snapshot("Drifted", TaskStatus.IDLE)));
+
+        when(taskRepository.countByDepartmentAndStatus()).thenReturn(List.of(
+                new Object[] {"IT", TaskStatus.IDLE, 3L},
+                new Object[] {"IT", TaskStatus.COMPLETED, 4L}
+        ));
+
+        taskCounterService.rebuild();
+
+        assertEquals(3, taskCounterService.count("IT", TaskStatus.IDLE));
+        assertEquals(4, taskCounterService.count("IT", TaskStatus.COMPLETED));
+        assertEquals(0, taskCounterService.count("Drifted", TaskStatus.IDLE));
+    }
+
+    @Test
+    void testRebuild_ReplaysChangesTheQueryMissed() {
+        TaskSnapshot idle = TaskSnapshot.builder().id(1L).department("IT").status(TaskStatus.IDLE).version(0).build();
+        TaskSnapshot active = idle.toBuilder().status(TaskStatus.ACTIVE).version(1).build();
+        TaskSnapshot created = TaskSnapshot.builder().id(2L).department("IT").status(TaskStatus.IDLE).build();
+
+        // task 1 went ACTIVE after the counts were read, task 2 was created before and is in them
+        when(taskRepository.countByDepartmentAndStatus()).thenAnswer(invocation -> {
+            taskCounterService.onTaskChanged(new TaskChangedEvent(idle, active));
+            taskCounterService.onTaskChanged(new TaskChangedEvent(null, created));
+            return List.<Object[]>of(new Object[] {"IT", TaskStatus.IDLE, 2L});
+        });
+        when(taskRepository.findVersionsByIdIn(anyCollection())).thenReturn(List.of(
+                new Object[] {1L, 0L},
+                new Object[] {2L, 0L}
+        ));
+
+        taskCounterService.rebuild();
+
+        assertEquals(1, taskCounterService.count("IT", TaskStatus.IDLE));
+        assertEquals(1, taskCounterService.count("IT", TaskStatus.ACTIVE));
+    }
+
+    @Test
+    void testRebuild_ChangesOfTasksMissingFromTheSnapshot() {
+        TaskSnapshot deleted = TaskSnapshot.builder().id(1L).department("IT").status(TaskStatus.IDLE).version(3).build();
+        TaskSnapshot created = TaskSnapshot.builder().id(2L).department("IT").status(TaskStatus.COMPLETED).build();
+
+        // task 1 was deleted before the snapshot, task 2 created after it
+        when(taskRepository.countByDepartmentAndStatus()).thenAnswer(invocation -> {
+            taskCounterService.onTaskChanged(new TaskChangedEvent(deleted, null));
+            taskCounterService.onTaskChanged(new TaskChangedEvent(null, created));
+            return List.<Object[]>of(new Object[] {"IT", TaskStatus.IDLE, 5L});
+        });
+        when(taskRepository.findVersionsByIdIn(anyCollection())).thenReturn(List.of());
+
+        taskCounterService.rebuild();
+
+        assertEquals(5, taskCounterService.count("IT", TaskStatus.IDLE));
+        assertEquals(1, taskCounterService.count("IT", TaskStatus.COMPLETED));
+
+        // recording stopped with the swap
+        taskCounterService.onTaskChanged(new TaskChangedEvent(null, created.toBuilder().id(3L).build()));
+        assertEquals(2, taskCounterService.count("IT", TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void testIsBehind_UntilRebuiltPastTheOtherInstancesChanges() {
+        when(changeCounterService.getOtherTaskChanges()).thenReturn(5L);
+
+        taskCounterService.rebuild();
+
+        assertFalse(taskCounterService.isBehind(5));
+        assertTrue(taskCounterService.isBehind(6));
+    }
+}
@@ -0,0 +1,145 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TaskDeadlineServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 8, 1);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ChangeCounterService changeCounterService;
+
+    @InjectMocks
+    private TaskDeadlineService taskDeadlineService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private TaskSnapshot snapshot(long id, LocalDate deadline, TaskStatus status) {
+        return TaskSnapshot.builder().id(id).deadline(deadline).status(status).build();
+    }
+
+    private List<Long> find(LocalDate from, LocalDate to, TaskCursor after, int limit) {
+        return taskDeadlineService.find(from, to, after, limit).stream().map(TaskCursor::getId).toList();
+    }
+
+    private void create(long id, LocalDate deadline) {
+        taskDeadlineService.onTaskChanged(new TaskChangedEvent(null, snapshot(id, deadline, TaskStatus.IDLE)));
+    }
+
+    @Test
+    void testOnTaskChanged_TracksOpenTasksOnly() {
+        create(1L, DAY);
+        create(2L, DAY);
+        taskDeadlineService.onTaskChanged(new TaskChangedEvent(null, snapshot(3L, DAY, TaskStatus.COMPLETED)));
+        assertEquals(2, taskDeadlineService.size());
+
+        taskDeadlineService.onTaskChanged(new TaskChangedEvent(
+                snapshot(1L, DAY, TaskStatus.IDLE), snapshot(1L, DAY, TaskStatus.ACTIVE)));
+        assertEquals(List.of(1L, 2L), find(null, null, null, 10));
+
+        taskDeadlineService.onTaskChanged(new TaskChangedEvent(
+                snapshot(1L, DAY, TaskStatus.ACTIVE), snapshot(1L, DAY, TaskStatus.COMPLETED)));
+        taskDeadlineService.onTaskChanged(new TaskChangedEvent(snapshot(2L, DAY, TaskStatus.IDLE), null));
+        assertEquals(0, taskDeadlineService.size());
+    }
+
+    @Test
+    void testOnTaskChanged_DeadlineMoved() {
+        create(1L, DAY);
+        create(2L, DAY.plusDays(1));
+
+        taskDeadlineService.onTaskChanged(new TaskChangedEvent(
+                snapshot(1L, DAY, TaskStatus.IDLE), snapshot(1L, DAY.plusDays(5), TaskStatus.IDLE)));
+
+        assertEquals(List.of(2L, 1L), find(null, null, null, 10));
+    }
+
+    @Test
+    void testFind_DeadlineRange() {
+        create(1L, DAY.minusDays(3));
+        create(2L, DAY.minusDays(1));
+        create(3L, DAY);
+        create(4L, DAY.plusDays(2));
+        create(5L, DAY.plusDays(10));
+
+        assertEquals(List.of(1L, 2L), find(null, DAY.minusDays(1), null, 10));
+        assertEquals(List.of(3L, 4L), find(DAY, DAY.plusDays(2), null, 10));
+        assertEquals(List.of(3L), find(DAY, DAY.plusDays(2), null, 1));
+        assertEquals(List.of(4L, 5L), find(DAY.plusDays(1), null, null, 10));
+        assertTrue(find(DAY.plusDays(3), DAY.plusDays(9), null, 10).isEmpty());
+    }
+
+    @Test
+    void testFind_AfterCursor() {
+        create(1L, DAY);
+        create(2L, DAY);
+        create(3L, DAY.plusDays(1));
+
+        assertEquals(List.of(2L, 3L), find(DAY, null, new TaskCursor(DAY, 1L), 10));
+        // cursor before the range start does not widen the range
+        assertEquals(List.of(3L), find(DAY.plusDays(1), null, new TaskCursor(DAY, 1L), 10));
+        // cursor past the range end
+        assertTrue(find(null, DAY, new TaskCursor(DAY.plusDays(1), 3L), 10).isEmpty());
+    }
+
+    @Test
+    void testRebuild_ReplacesIndex() {
+        create(9L, DAY);
+        when(taskRepository.findOpenDeadlines(TaskDeadlineService.OPEN)).thenReturn(List.of(
+                new TaskCursor(DAY.plusDays(1), 2L),
+                new TaskCursor(DAY, 1L)));
+
+        taskDeadlineService.rebuild();
+
+        assertEquals(List.of(1L, 2L), find(null, null, null, 10));
+    }
+
+    @Test
+    void testRebuild_KeepsChangesCommittedDuringTheQuery() {
+        TaskSnapshot open = snapshot(1L, DAY, TaskStatus.ACTIVE).toBuilder().version(2).build();
+        TaskSnapshot closed = open.toBuilder().status(TaskStatus.COMPLETED).version(3).build();
+        TaskSnapshot opened = snapshot(2L, DAY.plusDays(1), TaskStatus.IDLE);
+
+        // both committed after the snapshot: task 1 is still open in it, task 2 not there yet
+        when(taskRepository.findOpenDeadlines(TaskDeadlineService.OPEN)).thenAnswer(invocation -> {
+            taskDeadlineService.onTaskChanged(new TaskChangedEvent(open, closed));
+            taskDeadlineService.onTaskChanged(new TaskChangedEvent(null, opened));
+            return List.of(new TaskCursor(DAY, 1L));
+        });
+        when(taskRepository.findVersionsByIdIn(anyCollection())).thenReturn(List.<Object[]>of(new Object[] {1L, 2L}));
+
+        taskDeadlineService.rebuild();
+
+        assertEquals(List.of(2L), find(null, null, null, 10));
+    }
+
+    @Test
+    void testIsBehind_UntilRebuiltPastTheOtherInstancesChanges() {
+        assertTrue(taskDeadlineService.isBehind(1));
+        when(changeCounterService.getOtherTaskChanges()).thenReturn(1L);
+
+        taskDeadlineService.rebuild();
+
+        assertFalse(taskDeadlineService.isBehind(1));
+        verify(changeCounterService).getOtherTaskChanges();
+    }
+}
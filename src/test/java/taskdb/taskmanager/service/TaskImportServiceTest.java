@@ -0,0 +1,210 @@
+package taskdb.taskmanager.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.BulkResultDTO;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class TaskImportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private TaskImportService taskImportService;
+
+    @Captor
+    private ArgumentCaptor<List<Task>> savedTasks;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(taskImportService, "batchSize", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        when(taskRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private TaskDTO row(String title, Long personId) {
+        return TaskDTO.builder()
+                .title(title)
+                .description("Description")
+                .deadline(LocalDate.of(2025, 8, 1))
+                .department("IT")
+                .duration(4)
+                .assignedPersonId(personId)
+                .build();
+    }
+
+    @Test
+    void testImportTasks_SavesInBatches() {
+        List<TaskDTO> rows = List.of(row("Task 1", null), row("Task 2", null), row("Task 3", null));
+
+        BulkResultDTO result = taskImportService.importTasks(rows.iterator());
+
+        assertEquals(3, result.getReceived());
+        assertEquals(3, result.getSaved());
+        assertTrue(result.getErrors().isEmpty());
+        verify(taskRepository, times(2)).saveAll(any());
+        verify(taskRepository, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(personRepository, never()).findAllById(any());
+        verify(eventPublisher, times(3)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    void testImportTasks_ResolvesPersonsOncePerBatch() {
+        Person alice = Person.builder().id(1L).name("Alice").build();
+        when(personRepository.findAllById(any())).thenReturn(List.of(alice));
+
+        List<TaskDTO> rows = List.of(row("Task 1", 1L), row("Task 2", 1L), row("Task 3", 1L), row("Task 4", 1L));
+
+        BulkResultDTO result = taskImportService.importTasks(rows.iterator());
+
+        assertEquals(4, result.getSaved());
+        verify(personRepository, times(1)).findAllById(Set.of(1L));
+        verify(taskRepository, times(2)).saveAll(savedTasks.capture());
+        savedTasks.getAllValues().forEach(batch ->
+                batch.forEach(task -> assertSame(alice, task.getAssignedPerson())));
+    }
+
+    @Test
+    void testImportTasks_ReportsRowErrors() {
+        when(personRepository.findAllById(any())).thenReturn(List.of());
+
+        TaskDTO invalidStatus = row("Task 3", null);
+        invalidStatus.setStatus("DONE");
+        TaskDTO missingTitle = row(null, null);
+
+        List<TaskDTO> rows = Arrays.asList(row("Task 1", null), row("Task 2", 9L), invalidStatus, missingTitle, null);
+
+        BulkResultDTO result = taskImportService.importTasks(rows.iterator());
+
+        assertEquals(5, result.getReceived());
+        assertEquals(1, result.getSaved());
+        assertEquals(List.of(2, 3, 4, 5), result.getErrors().stream().map(e -> e.getRow()).toList());
+        assertEquals("Person not found for ID: 9", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void testImportTasks_ValidatesColumnLimits() {
+        ReflectionTestUtils.setField(taskImportService, "batchSize", 5);
+        TaskDTO longTitle = row("x".repeat(256), null);
+        TaskDTO longDepartment = row("Task 3", null);
+        longDepartment.setDepartment("x".repeat(256));
+        TaskDTO negativeDuration = row("Task 4", null);
+        negativeDuration.setDuration(-1);
+
+        List<TaskDTO> rows = List.of(row("Task 1", null), longTitle, longDepartment, negativeDuration, row("Task 5", null));
+
+        BulkResultDTO result = taskImportService.importTasks(rows.iterator());
+
+        assertEquals(2, result.getSaved());
+        assertEquals(List.of(2, 3, 4), result.getErrors().stream().map(e -> e.getRow()).toList());
+        assertEquals("title is longer than 255 characters", result.getErrors().get(0).getMessage());
+        verify(taskRepository).saveAll(savedTasks.capture());
+        assertEquals(List.of("Task 1", "Task 5"), savedTasks.getValue().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void testImportTasks_DatabaseRejectsARow_OthersOfTheBatchAreSaved() {
+        ReflectionTestUtils.setField(taskImportService, "batchSize", 3);
+        List<List<Task>> flushed = new ArrayList<>();
+        when(taskRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Task> tasks = invocation.getArgument(0);
+            flushed.add(tasks);
+            return tasks;
+        });
+        // stands in for a constraint the validation doesn't know about
+        doAnswer(invocation -> {
+            if (flushed.get(flushed.size() - 1).stream().anyMatch(task -> task.getTitle().equals("Rejected"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return null;
+        }).when(taskRepository).flush();
+
+        List<TaskDTO> rows = List.of(row("Task 1", null), row("Rejected", null), row("Task 3", null), row("Task 4", null));
+
+        BulkResultDTO result = taskImportService.importTasks(rows.iterator());
+
+        assertEquals(4, result.getReceived());
+        assertEquals(3, result.getSaved());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("Rejected by the database", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void testImportTasks_IgnoresIdsAndDefaultsToIdle() {
+        TaskDTO withId = row("Task 1", null);
+        withId.setId(42L);
+
+        taskImportService.importTasks(List.of(withId).iterator());
+
+        verify(taskRepository).saveAll(savedTasks.capture());
+        Task saved = savedTasks.getValue().get(0);
+        assertNull(saved.getId());
+        assertEquals(TaskStatus.IDLE, saved.getStatus());
+    }
+
+    @Test
+    void testImportTasks_StopsOnMalformedInput() {
+        Iterator<TaskDTO> rows = new Iterator<>() {
+            private int calls;
+
+            @Override
+            public boolean hasNext() {
+                if (calls == 1) {
+                    throw new IllegalStateException("Unexpected end of input");
+                }
+                return true;
+            }
+
+            @Override
+            public TaskDTO next() {
+                calls++;
+                return row("Task 1", null);
+            }
+        };
+
+        BulkResultDTO result = taskImportService.importTasks(rows);
+
+        assertEquals(1, result.getReceived());
+        assertEquals(1, result.getSaved());
+        assertEquals(2, result.getErrors().get(0).getRow());
+    }
+}
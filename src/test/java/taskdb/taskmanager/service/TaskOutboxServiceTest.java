@@ -0,0 +1,248 @@
+package taskdb.taskmanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.TaskAssignmentDTO;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
+import taskdb.taskmanager.entity.Person;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.entity.TaskOutboxMessage;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+import taskdb.taskmanager.outbox.InMemoryTaskOutboxPublisher;
+import taskdb.taskmanager.outbox.TaskOutboxPublisher;
+import taskdb.taskmanager.repository.PersonRepository;
+import taskdb.taskmanager.repository.PersonWorkloadRepository;
+import taskdb.taskmanager.repository.TaskOutboxRepository;
+import taskdb.taskmanager.repository.TaskRepository;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskOutboxServiceTest {
+
+    @Autowired
+    private TaskOutboxService taskOutboxService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonWorkloadRepository personWorkloadRepository;
+
+    @Autowired
+    private TaskOutboxRepository taskOutboxRepository;
+
+    @Autowired
+    private InMemoryTaskOutboxPublisher publisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        taskOutboxRepository.deleteAllInBatch();
+        publisher.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(taskOutboxService, "taskOutboxPublisher", publisher);
+        ReflectionTestUtils.setField(taskOutboxService, "batchSize", 500);
+        taskOutboxRepository.deleteAllInBatch();
+        taskRepository.deleteAllInBatch();
+        personWorkloadRepository.deleteAllInBatch();
+        personRepository.deleteAllInBatch();
+    }
+
+    private Task task(String title) {
+        return Task.builder()
+                .title(title)
+                .description("Description")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department("IT")
+                .duration(2)
+                .status(TaskStatus.IDLE)
+                .build();
+    }
+
+    private List<Long> createTasks(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> taskService.save(task("Task " + i), null).orElseThrow().getId())
+                .toList();
+    }
+
+    @Test
+    void testRelay_PublishesChangesInOrderAndEmptiesTheOutbox() throws Exception {
+        Long taskId = taskService.save(task("Task"), null).orElseThrow().getId();
+        taskService.updateTaskStatus(taskId, TaskStatus.ACTIVE);
+        taskService.delete(taskId);
+        assertEquals(3, taskOutboxRepository.count());
+
+        assertEquals(3, taskOutboxService.relay());
+
+        List<TaskOutboxMessage> published = publisher.getPublished();
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+                published.stream().map(TaskOutboxMessage::getChangeType).toList());
+        assertTrue(published.get(0).getId() < published.get(1).getId());
+        assertTrue(published.get(1).getId() < published.get(2).getId());
+
+        JsonNode update = objectMapper.readTree(published.get(1).getPayload());
+        assertEquals(taskId, update.get("id").asLong());
+        assertEquals("ACTIVE", update.get("status").asText());
+        assertEquals("IDLE", update.get("previousStatus").asText());
+        assertEquals(List.of(0L, 1L, 2L), versions(published));
+
+        assertEquals(0, taskOutboxRepository.count());
+        assertEquals(0, taskOutboxService.relay());
+    }
+
+    @Test
+    void testOnTaskChanged_PayloadCarriesTheVersionAfterEachChange() throws Exception {
+        personService.savePerson(Person.builder().name("Alice").department("IT").build());
+        Long bobId = personService.savePerson(Person.builder().name("Bob").department("HR").build()).getId();
+        Long taskId = taskService.save(task("Task"), null).orElseThrow().getId();
+        taskService.assignIdleTasks(TaskAssignmentDTO.builder().ids(List.of(taskId)).build());
+        taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder().status(TaskStatus.ACTIVE).ids(List.of(taskId)).build());
+        taskService.updateAssignedPerson(taskId, bobId);
+
+        assertEquals(4, taskOutboxService.relay());
+        assertEquals(List.of(0L, 1L, 2L, 3L), versions(publisher.getPublished()));
+        assertEquals(3, taskService.getVersion(taskId).orElseThrow());
+    }
+
+    private List<Long> versions(List<TaskOutboxMessage> messages) throws Exception {
+        List<Long> versions = new ArrayList<>();
+        for (TaskOutboxMessage message : messages) {
+            versions.add(objectMapper.readTree(message.getPayload()).get("version").asLong());
+        }
+        return versions;
+    }
+
+    @Test
+    void testDeletePerson_OutboxesEveryTaskOfThePerson() {
+        Long personId = personService.savePerson(Person.builder().name("Alice").department("IT").build()).getId();
+        Long first = taskService.save(task("First"), personId).orElseThrow().getId();
+        Long second = taskService.save(task("Second"), personId).orElseThrow().getId();
+        taskService.save(task("Unassigned"), null);
+        taskOutboxRepository.deleteAllInBatch();
+
+        personService.deletePerson(personId);
+
+        assertTrue(taskRepository.findById(first).isEmpty());
+        assertEquals(1, taskRepository.count());
+        assertEquals(2, taskOutboxService.relay());
+        List<TaskOutboxMessage> published = publisher.getPublished();
+        assertEquals(List.of("DELETED", "DELETED"), published.stream().map(TaskOutboxMessage::getChangeType).toList());
+        assertEquals(List.of(first, second), published.stream().map(TaskOutboxMessage::getTaskId).toList());
+    }
+
+    @Test
+    void testOnTaskChanged_RolledBackChangeLeavesNoMessage() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.save(task("Never committed"), null);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, taskOutboxRepository.count());
+    }
+
+    @Test
+    void testOnTaskChanged_RequiresATransaction() {
+        TaskChangedEvent event = new TaskChangedEvent(null, TaskSnapshot.builder().id(1L).department("IT").build());
+
+        assertThrows(IllegalTransactionStateException.class, () -> eventPublisher.publishEvent(event));
+        assertEquals(0, taskOutboxRepository.count());
+    }
+
+    @Test
+    void testRelay_DrainsSeveralBatchesPerPoll() {
+        ReflectionTestUtils.setField(taskOutboxService, "batchSize", 2);
+        List<Long> taskIds = createTasks(5);
+
+        assertEquals(5, taskOutboxService.relay());
+        assertEquals(taskIds, publisher.getPublished().stream().map(TaskOutboxMessage::getTaskId).toList());
+    }
+
+    @Test
+    void testRelay_FailedPublishKeepsTheBatch() {
+        createTasks(2);
+        TaskOutboxPublisher failing = messages -> {
+            throw new IOException("Sink is down");
+        };
+        ReflectionTestUtils.setField(taskOutboxService, "taskOutboxPublisher", failing);
+
+        assertThrows(RuntimeException.class, () -> taskOutboxService.relay());
+        assertEquals(2, taskOutboxRepository.count());
+
+        ReflectionTestUtils.setField(taskOutboxService, "taskOutboxPublisher", publisher);
+        assertEquals(2, taskOutboxService.relay());
+        assertEquals(0, taskOutboxRepository.count());
+    }
+
+    @Test
+    void testClaimBatch_SkipsRowsLockedByAnotherRelay() throws Exception {
+        createTasks(4);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<Long>> other = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = taskOutboxRepository.claimBatch(2).stream().map(TaskOutboxMessage::getId).toList();
+            claimed.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ids;
+        }));
+
+        try {
+            assertTrue(claimed.await(10, TimeUnit.SECONDS));
+            List<Long> mine = transactionTemplate.execute(status ->
+                    taskOutboxRepository.claimBatch(10).stream().map(TaskOutboxMessage::getId).toList());
+
+            assertEquals(2, mine.size());
+            release.countDown();
+            List<Long> theirs = other.get(10, TimeUnit.SECONDS);
+            assertEquals(2, theirs.size());
+            assertTrue(theirs.get(1) < mine.get(0), "each relay should get the oldest rows that are still free");
+        } finally {
+            release.countDown();
+        }
+    }
+}
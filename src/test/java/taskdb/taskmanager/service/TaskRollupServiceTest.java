@@ -0,0 +1,176 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import taskdb.taskmanager.dto.TaskAnalyticsDTO;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
+import taskdb.taskmanager.entity.Task;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.repository.TaskRepository;
+import taskdb.taskmanager.repository.TaskRollupRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskRollupServiceTest {
+
+    @Autowired
+    private TaskRollupService taskRollupService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskRollupRepository taskRollupRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        taskRollupRepository.deleteAllInBatch();
+    }
+
+    private Long save(String department, TaskStatus status, LocalDateTime activeAt) {
+        Task task = Task.builder()
+                .title("Task")
+                .description("Description")
+                .deadline(LocalDate.of(2025, 1, 1))
+                .department(department)
+                .duration(30)
+                .status(status)
+                .activeAt(activeAt)
+                .build();
+        return taskService.save(task, null).orElseThrow().getId();
+    }
+
+    // the day of the change and the day before, in case a test runs across midnight
+    private List<TaskAnalyticsDTO> analytics(String department, ChronoUnit interval) {
+        LocalDate today = LocalDate.now();
+        return taskRollupService.getAnalytics(today.minusDays(1), today, department, interval);
+    }
+
+    private static long sum(List<TaskAnalyticsDTO> rows, ToLongFunction<TaskAnalyticsDTO> field) {
+        return rows.stream().mapToLong(field).sum();
+    }
+
+    @Test
+    void testRollup_FollowsStatusChanges() {
+        Long first = save("Rollup", TaskStatus.IDLE, null);
+        Long second = save("rollup", TaskStatus.IDLE, null);
+        Long third = save("Other", TaskStatus.IDLE, null);
+
+        taskService.updateTaskStatus(first, TaskStatus.ACTIVE);
+        taskService.updateTaskStatus(first, TaskStatus.ACTIVE);
+        taskService.updateTaskStatus(first, TaskStatus.COMPLETED);
+        taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                .ids(List.of(second, third)).status(TaskStatus.CANCELLED).build());
+
+        List<TaskAnalyticsDTO> rollup = analytics("ROLLUP", ChronoUnit.DAYS);
+        assertTrue(rollup.stream().allMatch(row -> row.getDepartment().equals("ROLLUP")));
+        assertEquals(1, sum(rollup, TaskAnalyticsDTO::getStarted));
+        assertEquals(1, sum(rollup, TaskAnalyticsDTO::getCompleted));
+        assertEquals(1, sum(rollup, TaskAnalyticsDTO::getCancelled));
+
+        assertEquals(2, analytics(null, ChronoUnit.DAYS).stream().map(TaskAnalyticsDTO::getDepartment).distinct().count());
+    }
+
+    @Test
+    void testRollup_AveragesCycleTime() {
+        LocalDateTime now = LocalDateTime.now();
+        Long first = save("Rollup", TaskStatus.ACTIVE, now.minusMinutes(90));
+        Long second = save("Rollup", TaskStatus.ACTIVE, now.minusMinutes(30));
+
+        taskService.updateTaskStatus(first, TaskStatus.COMPLETED);
+        taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder().ids(List.of(second)).status(TaskStatus.COMPLETED).build());
+
+        List<TaskAnalyticsDTO> days = analytics("Rollup", ChronoUnit.DAYS);
+        TaskAnalyticsDTO today = days.get(days.size() - 1);
+        assertEquals(LocalDate.now().atStartOfDay(), today.getPeriod());
+        assertEquals(2, today.getCompleted());
+        assertEquals(60, today.getAverageCycleMinutes(), 0.1);
+
+        // started in the hours they were activated, not when they were saved
+        List<TaskAnalyticsDTO> hours = analytics("Rollup", ChronoUnit.HOURS);
+        assertTrue(hours.stream().allMatch(row -> row.getPeriod().equals(row.getPeriod().truncatedTo(ChronoUnit.HOURS))));
+        assertTrue(hours.stream().anyMatch(row -> row.getPeriod().equals(now.minusMinutes(90).truncatedTo(ChronoUnit.HOURS))
+                && row.getStarted() >= 1));
+    }
+
+    @Test
+    void testRollup_RolledBackWithTheTransaction() {
+        Long id = save("Rollup", TaskStatus.IDLE, null);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.updateTaskStatus(id, TaskStatus.ACTIVE);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), analytics("Rollup", ChronoUnit.DAYS));
+    }
+
+    @Test
+    void testBackfill_RebuildsTheSameBuckets() {
+        LocalDateTime now = LocalDateTime.now();
+        Long first = save("Rollup", TaskStatus.ACTIVE, now.minusMinutes(45));
+        Long second = save("Rollup", TaskStatus.IDLE, null);
+        taskService.updateTaskStatus(first, TaskStatus.COMPLETED);
+        taskService.updateTaskStatus(second, TaskStatus.CANCELLED);
+        List<TaskAnalyticsDTO> maintained = analytics("Rollup", ChronoUnit.HOURS);
+
+        taskRollupRepository.deleteAllInBatch();
+        assertTrue(taskRollupService.backfill(null, null) > 0);
+        assertEquals(maintained, analytics("Rollup", ChronoUnit.HOURS));
+
+        // a range in the past leaves today's buckets alone
+        assertEquals(0, taskRollupService.backfill(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)));
+        assertEquals(maintained, analytics("Rollup", ChronoUnit.HOURS));
+
+        // running it again over the same range does not count twice
+        taskRollupService.backfill(LocalDate.now().minusDays(1), LocalDate.now());
+        assertEquals(maintained, analytics("Rollup", ChronoUnit.HOURS));
+    }
+
+    @Test
+    void testBackfill_AgreesAfterReopensRepeatsAndDeletes() {
+        LocalDateTime firstActivation = LocalDateTime.now().minusHours(2);
+        Long reopened = save("Rollup", TaskStatus.ACTIVE, firstActivation);
+        Long repeated = save("Rollup", TaskStatus.IDLE, null);
+        Long deleted = save("Rollup", TaskStatus.IDLE, null);
+
+        taskService.updateTaskStatus(reopened, TaskStatus.COMPLETED);
+        taskService.updateTaskStatus(reopened, TaskStatus.ACTIVE);
+        taskService.updateTaskStatus(reopened, TaskStatus.COMPLETED);
+        taskService.updateTaskStatus(repeated, TaskStatus.ACTIVE);
+        taskService.updateTaskStatus(repeated, TaskStatus.ACTIVE);
+        taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder().ids(List.of(repeated)).status(TaskStatus.ACTIVE).build());
+        taskService.updateTaskStatus(deleted, TaskStatus.CANCELLED);
+        taskService.delete(deleted);
+        List<TaskAnalyticsDTO> maintained = analytics("Rollup", ChronoUnit.HOURS);
+
+        // what the rows show now: the last activation of each task, the last completion, nothing of the deleted one
+        assertEquals(2, sum(maintained, TaskAnalyticsDTO::getStarted));
+        assertEquals(1, sum(maintained, TaskAnalyticsDTO::getCompleted));
+        assertEquals(0, sum(maintained, TaskAnalyticsDTO::getCancelled));
+        assertTrue(maintained.stream().noneMatch(row -> row.getPeriod().equals(firstActivation.truncatedTo(ChronoUnit.HOURS))));
+
+        taskRollupRepository.deleteAllInBatch();
+        taskRollupService.backfill(null, null);
+        assertEquals(maintained, analytics("Rollup", ChronoUnit.HOURS));
+    }
+}
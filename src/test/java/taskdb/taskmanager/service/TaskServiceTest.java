@@ -1,20 +1,44 @@
 package taskdb.taskmanager.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import taskdb.taskmanager.assignment.AssignmentCandidate;
+import taskdb.taskmanager.dto.AssignmentResultDTO;
+import taskdb.taskmanager.dto.BulkStatusResultDTO;
+import taskdb.taskmanager.dto.TaskCursor;
+import taskdb.taskmanager.dto.TaskAssignmentDTO;
+import taskdb.taskmanager.dto.PersonSnapshot;
+import taskdb.taskmanager.dto.TaskDTO;
+import taskdb.taskmanager.dto.TaskStatusUpdateDTO;
 import taskdb.taskmanager.entity.Person;
 import taskdb.taskmanager.entity.Task;
 import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
 import taskdb.taskmanager.repository.PersonRepository;
 import taskdb.taskmanager.repository.TaskRepository;
 
 import java.lang.StackWalker.Option;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 public class TaskServiceTest {
@@ -22,9 +46,33 @@ public class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private PersonService personService;
+
     @Mock
     private PersonRepository personRepository;
 
+    @Mock
+    private PersonWorkloadService personWorkloadService;
+
+    @Mock
+    private TaskCounterService taskCounterService;
+
+    @Mock
+    private TaskDeadlineService taskDeadlineService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Captor
+    private ArgumentCaptor<TaskChangedEvent> eventCaptor;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -38,7 +86,8 @@ public class TaskServiceTest {
         Person person = Person.builder().id(1L).build();
         Task task = Task.builder().title("Test Task").build();
 
-        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        when(personService.getPersonSnapshot(1L)).thenReturn(Optional.of(PersonSnapshot.builder().id(1L).build()));
+        when(personRepository.getReferenceById(1L)).thenReturn(person);
         when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         Optional<Task> result = taskService.save(task, 1L);
@@ -46,13 +95,14 @@ public class TaskServiceTest {
         assertTrue(result.isPresent());
         assertEquals(person, result.get().getAssignedPerson());
         verify(taskRepository).save(task);
+        verify(personService, never()).getPersonById(any());
     }
     
     @Test
     void testSaveTaskWithInvalidPerson() {
         Task task = Task.builder().title("Test Task").build();
 
-        when(personRepository.findById(1L)).thenReturn(Optional.empty());
+        when(personService.getPersonSnapshot(1L)).thenReturn(Optional.empty());
 
         Optional<Task> result = taskService.save(task, 1L);
 
@@ -60,6 +110,20 @@ public class TaskServiceTest {
         verify(taskRepository, never()).save(any(Task.class));
     }
 
+    @Test
+    void testSaveTaskWithId_OverwritesStoredVersion() {
+        Task stored = Task.builder().id(1L).title("Old").department("IT").status(TaskStatus.IDLE).version(5).build();
+        Task task = Task.builder().id(1L).title("New").department("IT").status(TaskStatus.IDLE).build();
+
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(stored));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.save(task, null);
+
+        assertEquals(5, task.getVersion());
+        assertEquals(1L, task.getId());
+    }
+
     void testUpdateStatusToCompleted_ShouldUpdatePersonStats() {
         Person person = Person.builder()
                 .id(1L)
@@ -75,18 +139,17 @@ public class TaskServiceTest {
                 .assignedPerson(person)
                 .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
         when(taskRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
-        when(personRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Optional<Task> result = taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
 
         assertTrue(result.isPresent());
         assertEquals(TaskStatus.COMPLETED, result.get().getStatus());
-        assertEquals(3, person.getTotalTasksCompleted());
 
-        // average duration: ((30 * 2) + 60) / 3 = 40
-        assertEquals(40.0, person.getAverageTaskDuration());
+        // the running total and average are updated by the database in one statement
+        verify(personService).recordCompletion(1L, 60L);
+        verify(personService, never()).savePerson(any());
     }
 
     @Test
@@ -94,8 +157,9 @@ public class TaskServiceTest {
         Task task = Task.builder().id(1L).build();
         Person newPerson = Person.builder().id(2L).build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(personRepository.findById(2L)).thenReturn(Optional.of(newPerson));
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(personService.getPersonSnapshot(2L)).thenReturn(Optional.of(PersonSnapshot.builder().id(2L).build()));
+        when(personRepository.getReferenceById(2L)).thenReturn(newPerson);
         when(taskRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Optional<Task> result = taskService.updateAssignedPerson(1L, 2L);
@@ -106,8 +170,11 @@ public class TaskServiceTest {
 
     @Test
     void testDeleteTask() {
+        Task task = Task.builder().id(1L).department("IT").status(TaskStatus.IDLE).build();
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+
         taskService.delete(1L);
-        verify(taskRepository, times(1)).deleteById(1L);
+        verify(taskRepository, times(1)).delete(task);
     }
 
     @Test
@@ -127,18 +194,101 @@ public class TaskServiceTest {
 
     @Test
     void testGetTaskByDepartment() {
-        Task task1 = Task.builder().id(1L).department("IT").build();
+        TaskDTO task1 = TaskDTO.builder().id(1L).department("IT").build();
 
-        List<Task> tasks = List.of(task1);
+        List<TaskDTO> tasks = List.of(task1);
 
-        when(taskRepository.findByDepartment("IT")).thenReturn(tasks);
+        when(taskRepository.findDTOsByDepartment("IT")).thenReturn(tasks);
 
-        List<Task> result = taskService.getTasksByDepartment("IT");
+        List<TaskDTO> result = taskService.getTasksByDepartment("IT");
 
         assertEquals(1, result.size());
         assertEquals("IT", result.get(0).getDepartment());
     }
 
+    @Test
+    void testGetByStatus() {
+        TaskDTO task = TaskDTO.builder().id(1L).status("IDLE").build();
+
+        when(taskRepository.findDTOsByStatus(TaskStatus.IDLE)).thenReturn(List.of(task));
+
+        List<TaskDTO> result = taskService.getByStatus(TaskStatus.IDLE);
+
+        assertEquals(1, result.size());
+        verify(taskRepository, never()).findAll();
+    }
+
+    // tasks of the status with these ids, the repository answers the lowest page, the ranks and the id lookups
+    private void stubTasksWithIds(List<Long> taskIds) {
+        List<TaskDTO> tasks = taskIds.stream().map(id -> TaskDTO.builder().id(id).status("IDLE").build()).toList();
+        when(taskRepository.findDTOsByStatus(eq(TaskStatus.IDLE), any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(1);
+            int from = (int) Math.min(page.getOffset(), tasks.size());
+            return tasks.subList(from, Math.min(from + page.getPageSize(), tasks.size()));
+        });
+        when(taskRepository.findMaxIdByStatus(TaskStatus.IDLE)).thenReturn(Optional.of(taskIds.get(taskIds.size() - 1)));
+        when(taskRepository.findDTOsByIdInAndStatus(anyCollection(), eq(TaskStatus.IDLE))).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return tasks.stream().filter(task -> ids.contains(task.getId())).toList();
+        });
+        when(taskCounterService.count(TaskStatus.IDLE)).thenReturn((long) tasks.size());
+    }
+
+    @Test
+    void testGetRandomByStatus_FewerThanRequested() {
+        TaskDTO task1 = TaskDTO.builder().id(1L).status("IDLE").build();
+        TaskDTO task2 = TaskDTO.builder().id(2L).status("IDLE").build();
+
+        when(taskRepository.findDTOsByStatus(eq(TaskStatus.IDLE), any(Pageable.class))).thenReturn(List.of(task1, task2));
+
+        List<TaskDTO> result = taskService.getRandomByStatus(TaskStatus.IDLE, 3);
+
+        assertEquals(2, result.size());
+        verify(taskRepository, never()).findDTOsByIdInAndStatus(any(), any());
+    }
+
+    @Test
+    void testGetRandomByStatus_DenseStatusTakesOneLookup() {
+        stubTasksWithIds(LongStream.rangeClosed(100, 100_000).boxed().toList());
+
+        List<TaskDTO> result = taskService.getRandomByStatus(TaskStatus.IDLE, 3);
+
+        assertEquals(3, result.size());
+        assertEquals(3, result.stream().map(TaskDTO::getId).distinct().count());
+        assertTrue(result.stream().allMatch(task -> task.getId() >= 100 && task.getId() <= 100_000));
+        verify(taskRepository, times(1)).findDTOsByIdInAndStatus(anyCollection(), eq(TaskStatus.IDLE));
+        verify(taskRepository, never()).findDTOsByStatus(any(TaskStatus.class));
+    }
+
+    // with a seek to the first task at or after a random id, the task after the gap came up 996 times in 1000
+    @Test
+    void testGetRandomByStatus_GapsDoNotFavourTheTaskAfterThem() {
+        stubTasksWithIds(List.of(1L, 2L, 3L, 4L, 1000L));
+
+        int picks = 2000;
+        long afterGap = 0;
+        for (int i = 0; i < picks; i++) {
+            if (taskService.getRandomByStatus(TaskStatus.IDLE, 1).get(0).getId() == 1000L) {
+                afterGap++;
+            }
+        }
+
+        // 1 in 5, 400 expected, the bounds are about 7 standard deviations away
+        assertTrue(afterGap > 270 && afterGap < 530, "task after the gap picked " + afterGap + " times");
+    }
+
+    @Test
+    void testGetRandomByStatus_RareStatusFallsBackToRanks() {
+        stubTasksWithIds(List.of(1L, 2L, 3L, 4L, 10_000_000L));
+
+        List<TaskDTO> result = taskService.getRandomByStatus(TaskStatus.IDLE, 3);
+
+        assertEquals(3, result.size());
+        assertEquals(3, result.stream().map(TaskDTO::getId).distinct().count());
+        verify(taskRepository, times(4)).findDTOsByIdInAndStatus(anyCollection(), eq(TaskStatus.IDLE));
+        verify(taskRepository, atLeast(3)).findDTOsByStatus(eq(TaskStatus.IDLE), argThat(page -> page.getPageSize() == 1));
+    }
+
     @Test
     void testGetAllTasks() {
         Task task1 = Task.builder().id(1L).title("Task 1").build();
@@ -155,6 +305,48 @@ public class TaskServiceTest {
         assertEquals("Task 2", result.get(1).getTitle());
     }
 
+    @Test
+    void testGetPage_FirstPage() {
+        TaskDTO task = TaskDTO.builder().id(1L).title("Task 1").build();
+
+        when(taskRepository.findPage(TaskStatus.IDLE, "IT", null, PageRequest.of(0, 10))).thenReturn(List.of(task));
+
+        List<TaskDTO> result = taskService.getPage(TaskStatus.IDLE, "IT", null, null, 10);
+
+        assertEquals(1, result.size());
+        verify(taskRepository, never()).findPageAfter(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetPage_AfterCursor() {
+        LocalDate deadline = LocalDate.of(2025, 8, 1);
+        TaskDTO task = TaskDTO.builder().id(5L).title("Task 5").build();
+
+        when(taskRepository.findPageAfter(null, null, 3L, deadline, 4L, PageRequest.of(0, 10))).thenReturn(List.of(task));
+
+        List<TaskDTO> result = taskService.getPage(null, null, 3L, new TaskCursor(deadline, 4L), 10);
+
+        assertEquals(1, result.size());
+        assertEquals(5L, result.get(0).getId());
+    }
+
+    @Test
+    void testExportTasks_StreamsAndClosesResults() {
+        TaskDTO task1 = TaskDTO.builder().id(1L).build();
+        TaskDTO task2 = TaskDTO.builder().id(2L).build();
+        AtomicBoolean closed = new AtomicBoolean();
+        LocalDate from = LocalDate.of(2025, 1, 1);
+
+        when(taskRepository.streamForExport(TaskStatus.IDLE, "IT", from, null))
+                .thenReturn(Stream.of(task1, task2).onClose(() -> closed.set(true)));
+
+        List<TaskDTO> exported = new ArrayList<>();
+        taskService.exportTasks(TaskStatus.IDLE, "IT", from, null, exported::add);
+
+        assertEquals(List.of(task1, task2), exported);
+        assertTrue(closed.get());
+    }
+
     @Test
     void testSaveTask_idleDeafaultStatus() {
         Task task = Task.builder().title("Test Task").status(null).build();
@@ -193,29 +385,170 @@ public class TaskServiceTest {
                 .activeAt(LocalDateTime.now().minusMinutes(30))
                 .build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
         when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(personRepository.save(any(Person.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Optional<Task> result = taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
 
         assertTrue(result.isPresent());
+        verify(personService).recordCompletion(1L, 30L);
+        assertEquals(1, meterRegistry.get(TaskService.COMPLETION_TIMER).timer().count());
+    }
+
+    @Test
+    void testUpdateTaskStatus_AlreadyCompletedDoesNotCountTwice() {
+        Task task = Task.builder()
+                .id(1L)
+                .assignedPerson(Person.builder().id(1L).build())
+                .status(TaskStatus.COMPLETED)
+                .activeAt(LocalDateTime.now().minusMinutes(30))
+                .build();
+
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.updateTaskStatus(1L, TaskStatus.COMPLETED);
+
+        verify(personService, never()).recordCompletion(any(), anyLong());
+        assertNull(meterRegistry.find(TaskService.COMPLETION_TIMER).timer());
+    }
+
+    private TaskSnapshot snapshot(long id, Long personId, TaskStatus status, LocalDateTime activeAt) {
+        return TaskSnapshot.builder().id(id).department("IT").assignedPersonId(personId).status(status).activeAt(activeAt).build();
+    }
+
+    @Test
+    void testUpdateTaskStatuses_AggregatesCompletionsPerPerson() {
+        LocalDateTime activeAt = LocalDateTime.now().minusMinutes(30);
+        when(taskRepository.findSnapshotsForUpdate(List.of(1L, 2L, 3L, 4L, 5L))).thenReturn(new ArrayList<>(List.of(
+                snapshot(1L, 7L, TaskStatus.ACTIVE, activeAt),
+                snapshot(2L, 7L, TaskStatus.ACTIVE, activeAt),
+                snapshot(3L, 8L, TaskStatus.ACTIVE, activeAt),
+                snapshot(4L, 8L, TaskStatus.COMPLETED, activeAt))));
+
+        BulkStatusResultDTO result = taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                .status(TaskStatus.COMPLETED)
+                .ids(List.of(5L, 4L, 3L, 2L, 1L, 1L))
+                .build());
+
+        assertEquals(4, result.getUpdated());
+        assertEquals(List.of(5L), result.getNotFound());
+        verify(taskRepository).updateStatus(eq(List.of(1L, 2L, 3L, 4L)), eq(TaskStatus.COMPLETED), isNull(), any(LocalDateTime.class));
+        verify(personService).recordCompletions(7L, 2, 60L);
+        verify(personService).recordCompletions(8L, 1, 30L);
+        verifyNoMoreInteractions(personService);
+        assertEquals(3, meterRegistry.get(TaskService.COMPLETION_TIMER).timer().count());
+
+        verify(eventPublisher, times(4)).publishEvent(eventCaptor.capture());
+        TaskChangedEvent first = eventCaptor.getAllValues().get(0);
+        assertEquals(TaskStatus.ACTIVE, first.getPrevious().getStatus());
+        assertEquals(TaskStatus.COMPLETED, first.getCurrent().getStatus());
+        assertEquals(activeAt, first.getCurrent().getActiveAt());
+        assertNotNull(first.getCurrent().getFinishedAt());
+    }
+
+    @Test
+    void testUpdateTaskStatuses_ByFilter() {
+        when(taskRepository.findSnapshotsForUpdate(TaskStatus.IDLE, "IT", null))
+                .thenReturn(List.of(snapshot(1L, null, TaskStatus.IDLE, null)));
+
+        BulkStatusResultDTO result = taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                .status(TaskStatus.ACTIVE)
+                .currentStatus(TaskStatus.IDLE)
+                .department("IT")
+                .build());
+
+        assertEquals(1, result.getUpdated());
+        verify(taskRepository).updateStatus(eq(List.of(1L)), eq(TaskStatus.ACTIVE), any(LocalDateTime.class), isNull());
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertNotNull(eventCaptor.getValue().getCurrent().getActiveAt());
+        verifyNoInteractions(personService);
+    }
 
-        Person updatedPerson = result.get().getAssignedPerson();
-        assertEquals(2, updatedPerson.getTotalTasksCompleted());
-        assertTrue(updatedPerson.getAverageTaskDuration() < 60.0); // now ~50min
+    @Test
+    void testUpdateTaskStatuses_IdsAreFilteredToo() {
+        when(taskRepository.findSnapshotsForUpdate(List.of(1L, 2L))).thenReturn(new ArrayList<>(List.of(
+                snapshot(1L, null, TaskStatus.IDLE, null),
+                snapshot(2L, null, TaskStatus.ACTIVE, null))));
+
+        BulkStatusResultDTO result = taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                .status(TaskStatus.CANCELLED)
+                .ids(List.of(1L, 2L))
+                .currentStatus(TaskStatus.IDLE)
+                .build());
+
+        assertEquals(1, result.getUpdated());
+        assertTrue(result.getNotFound().isEmpty());
+        verify(taskRepository).updateStatus(eq(List.of(1L)), eq(TaskStatus.CANCELLED), isNull(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testUpdateTaskStatuses_NothingMatches() {
+        when(taskRepository.findSnapshotsForUpdate(List.of(1L))).thenReturn(new ArrayList<>());
+
+        BulkStatusResultDTO result = taskService.updateTaskStatuses(TaskStatusUpdateDTO.builder()
+                .status(TaskStatus.COMPLETED)
+                .ids(List.of(1L))
+                .build());
+
+        assertEquals(0, result.getUpdated());
+        assertEquals(List.of(1L), result.getNotFound());
+        verify(taskRepository, never()).updateStatus(any(), any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testAssignIdleTasks_OneUpdatePerPerson() {
+        when(taskRepository.findSnapshotsForUpdate(List.of(1L, 2L, 3L, 4L, 5L, 6L))).thenReturn(new ArrayList<>(List.of(
+                snapshot(1L, null, TaskStatus.IDLE, null).toBuilder().duration(5).build(),
+                snapshot(2L, null, TaskStatus.IDLE, null).toBuilder().duration(3).build(),
+                snapshot(3L, null, TaskStatus.IDLE, null).toBuilder().duration(2).build(),
+                snapshot(4L, 7L, TaskStatus.IDLE, null),
+                snapshot(5L, null, TaskStatus.IDLE, null).toBuilder().department("SALES").build())));
+        when(personWorkloadService.getCandidates(Set.of("IT", "SALES"))).thenReturn(List.of(
+                new AssignmentCandidate(7L, "IT", 0, 0, 0),
+                new AssignmentCandidate(8L, "IT", 0, 0, 0)));
+
+        AssignmentResultDTO result = taskService.assignIdleTasks(TaskAssignmentDTO.builder()
+                .ids(List.of(1L, 2L, 3L, 4L, 5L, 6L))
+                .build());
+
+        assertEquals(3, result.getAssigned());
+        assertEquals(List.of(5L), result.getNoCandidate());
+        assertEquals(List.of(6L), result.getNotFound());
+        // longest task first: 5 to person 7, then 3 and 2 to person 8
+        verify(taskRepository).assignPersons(Map.of(1L, 7L, 2L, 8L, 3L, 8L));
+
+        verify(eventPublisher, times(3)).publishEvent(eventCaptor.capture());
+        TaskChangedEvent first = eventCaptor.getAllValues().get(0);
+        assertNull(first.getPrevious().getAssignedPersonId());
+        assertEquals(7L, first.getCurrent().getAssignedPersonId());
+    }
+
+    @Test
+    void testAssignIdleTasks_ByDepartment() {
+        when(taskRepository.findUnassignedSnapshotsForUpdate(TaskStatus.IDLE, "it"))
+                .thenReturn(new ArrayList<>(List.of(snapshot(1L, null, TaskStatus.IDLE, null))));
+        when(personWorkloadService.getCandidates(Set.of("IT"))).thenReturn(List.of());
+
+        AssignmentResultDTO result = taskService.assignIdleTasks(TaskAssignmentDTO.builder().department("it").build());
+
+        assertEquals(0, result.getAssigned());
+        assertEquals(List.of(1L), result.getNoCandidate());
+        verify(taskRepository, never()).assignPersons(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void testUpdateAssignedPerson_InvalidInputs() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
-        when(personRepository.findById(2L)).thenReturn(Optional.of(new Person()));
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+        when(personService.getPersonSnapshot(2L)).thenReturn(Optional.of(PersonSnapshot.builder().id(2L).build()));
 
         Optional<Task> result1 = taskService.updateAssignedPerson(1L, 2L);
         assertFalse(result1.isPresent());
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(new Task()));
-        when(personRepository.findById(2L)).thenReturn(Optional.empty());
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new Task()));
+        when(personService.getPersonSnapshot(2L)).thenReturn(Optional.empty());
 
         Optional<Task> result2 = taskService.updateAssignedPerson(1L, 2L);
         assertFalse(result2.isPresent());
@@ -224,15 +557,89 @@ public class TaskServiceTest {
 
     @Test
     void testDeleteTask_CallsRepository() {
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
+
+        taskService.delete(1L);
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testDeleteTask_PublishesEvent() {
+        Task task = Task.builder().id(1L).department("IT").status(TaskStatus.ACTIVE).build();
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+
         taskService.delete(1L);
-        verify(taskRepository, times(1)).deleteById(1L);
+
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        TaskChangedEvent event = eventCaptor.getValue();
+        assertEquals(TaskStatus.ACTIVE, event.getPrevious().getStatus());
+        assertNull(event.getCurrent());
+    }
+
+    @Test
+    void testSaveTask_PublishesCreatedEvent() {
+        Task task = Task.builder().title("Test Task").department("IT").status(TaskStatus.IDLE).build();
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+            Task toSave = invocation.getArgument(0);
+            toSave.setId(10L);
+            return toSave;
+        });
+
+        taskService.save(task, null);
+
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        TaskChangedEvent event = eventCaptor.getValue();
+        assertNull(event.getPrevious());
+        assertEquals(10L, event.getTaskId());
+        assertEquals("IT", event.getCurrent().getDepartment());
+    }
+
+    @Test
+    void testUpdateTaskStatus_PublishesTransition() {
+        Task task = Task.builder().id(1L).department("IT").status(TaskStatus.IDLE).build();
+
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.updateTaskStatus(1L, TaskStatus.ACTIVE);
+
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        TaskChangedEvent event = eventCaptor.getValue();
+        assertEquals(TaskStatus.IDLE, event.getPrevious().getStatus());
+        assertEquals(TaskStatus.ACTIVE, event.getCurrent().getStatus());
+    }
+
+    @Test
+    void testUpdateAssignedPerson_PublishesReassignment() {
+        Task task = Task.builder().id(1L).assignedPerson(Person.builder().id(1L).build()).build();
+
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
+        when(personService.getPersonSnapshot(2L)).thenReturn(Optional.of(PersonSnapshot.builder().id(2L).build()));
+        when(personRepository.getReferenceById(2L)).thenReturn(Person.builder().id(2L).build());
+        when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        taskService.updateAssignedPerson(1L, 2L);
+
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(1L, eventCaptor.getValue().getPrevious().getAssignedPersonId());
+        assertEquals(2L, eventCaptor.getValue().getCurrent().getAssignedPersonId());
+    }
+
+    @Test
+    void testGetTaskReportRaw_ReadsCounters() {
+        List<Object[]> report = List.<Object[]>of(new Object[] {"IT", 1L, 2L});
+        when(taskCounterService.getReport()).thenReturn(report);
+
+        assertSame(report, taskService.getTaskReportRaw());
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     void testUpdateTaskStatus_SetsTimestamps() {
         Task task = Task.builder().id(1L).status(TaskStatus.IDLE).build();
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(task));
         when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Optional<Task> result = taskService.updateTaskStatus(1L, TaskStatus.ACTIVE);
@@ -241,4 +648,44 @@ public class TaskServiceTest {
         assertNotNull(result.get().getActiveAt());
     }
 
+
+    @Test
+    void testGetOverdue_FetchesIndexedIds() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        List<TaskDTO> tasks = List.of(TaskDTO.builder().id(4L).build(), TaskDTO.builder().id(2L).build());
+
+        when(taskDeadlineService.find(null, yesterday, null, 51))
+                .thenReturn(List.of(new TaskCursor(yesterday, 4L), new TaskCursor(yesterday, 2L)));
+        when(taskRepository.findDTOsByIdInAndStatusIn(List.of(4L, 2L), TaskDeadlineService.OPEN)).thenReturn(tasks);
+
+        assertEquals(tasks, taskService.getOverdue(null, 51));
+    }
+
+    @Test
+    void testGetOverdue_StaleIdsRefilledFromTheIndex() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        TaskCursor deleted = new TaskCursor(yesterday, 2L);
+        TaskDTO first = TaskDTO.builder().id(1L).build();
+        TaskDTO next = TaskDTO.builder().id(3L).build();
+
+        // 2 was deleted or completed after the index was read, 3 takes its place on the page
+        when(taskDeadlineService.find(null, yesterday, null, 2))
+                .thenReturn(List.of(new TaskCursor(yesterday, 1L), deleted));
+        when(taskRepository.findDTOsByIdInAndStatusIn(List.of(1L, 2L), TaskDeadlineService.OPEN)).thenReturn(List.of(first));
+        when(taskDeadlineService.find(null, yesterday, deleted, 1)).thenReturn(List.of(new TaskCursor(yesterday, 3L)));
+        when(taskRepository.findDTOsByIdInAndStatusIn(List.of(3L), TaskDeadlineService.OPEN)).thenReturn(List.of(next));
+
+        assertEquals(List.of(first, next), taskService.getOverdue(null, 2));
+    }
+
+    @Test
+    void testGetDueWithin_NothingDueSkipsQuery() {
+        when(taskDeadlineService.find(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        assertTrue(taskService.getDueWithin(Duration.ofHours(48), null, 51).isEmpty());
+
+        LocalDate today = LocalDate.now();
+        verify(taskDeadlineService).find(eq(today), argThat(until -> !until.isBefore(today.plusDays(1))), isNull(), eq(51));
+        verify(taskRepository, never()).findDTOsByIdInAndStatusIn(any(), any());
+    }
 }
@@ -0,0 +1,279 @@
+package taskdb.taskmanager.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import taskdb.taskmanager.dto.TaskChangeDTO;
+import taskdb.taskmanager.enums.TaskStatus;
+import taskdb.taskmanager.event.TaskChangedEvent;
+import taskdb.taskmanager.event.TaskSnapshot;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskStreamServiceTest {
+
+    private static final Pattern EVENT_NAME = Pattern.compile("event:(\\w+)");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+    private CountDownLatch slowClient;
+    private boolean failingClient;
+
+    private TaskStreamService taskStreamService;
+
+    @BeforeEach
+    public void setUp() {
+        taskStreamService = new TaskStreamService() {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter(slowClient, failingClient);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(taskStreamService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(taskStreamService, "bufferSize", 4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskStreamService.shutdown();
+    }
+
+    private TaskSnapshot snapshot(long id, String department, Long personId, TaskStatus status) {
+        return TaskSnapshot.builder().id(id).department(department).assignedPersonId(personId).status(status).build();
+    }
+
+    private void publish(TaskSnapshot previous, TaskSnapshot current) {
+        taskStreamService.onTaskChanged(new TaskChangedEvent(previous, current));
+    }
+
+    @Test
+    void testOnTaskChanged_FiltersByDepartmentAndAssignee() throws Exception {
+        taskStreamService.subscribe("it", null);
+        taskStreamService.subscribe(null, 7L);
+
+        publish(null, snapshot(5L, "HR", null, TaskStatus.IDLE));
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+        publish(null, snapshot(2L, "HR", 7L, TaskStatus.IDLE));
+        publish(snapshot(3L, "IT", null, TaskStatus.IDLE), snapshot(3L, "HR", null, TaskStatus.IDLE));
+        publish(snapshot(4L, "HR", 7L, TaskStatus.IDLE), null);
+
+        List<String> department = emitters.get(0).awaitEvents(2);
+        assertEquals(List.of("task:1:CREATED", "task:3:UPDATED"), department);
+
+        List<String> assignee = emitters.get(1).awaitEvents(2);
+        assertEquals(List.of("task:2:CREATED", "task:4:DELETED"), assignee);
+    }
+
+    @Test
+    void testOnTaskChanged_SlowClientIsCoalescedAndDropped() throws Exception {
+        slowClient = new CountDownLatch(1);
+        taskStreamService.subscribe(null, null);
+        RecordingEmitter emitter = emitters.get(0);
+
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+
+        // the client is stuck on task 1, everything else has to wait in its buffer
+        for (long id = 2; id <= 7; id++) {
+            publish(null, snapshot(id, "IT", null, TaskStatus.IDLE));
+        }
+        publish(snapshot(6L, "IT", null, TaskStatus.IDLE), snapshot(6L, "IT", null, TaskStatus.ACTIVE));
+        publish(snapshot(6L, "IT", null, TaskStatus.ACTIVE), snapshot(6L, "IT", null, TaskStatus.COMPLETED));
+        slowClient.countDown();
+
+        List<String> events = emitter.awaitEvents(6);
+        assertEquals(List.of("task:1:CREATED", "dropped:2", "task:4:CREATED", "task:5:CREATED",
+                "task:7:CREATED", "task:6:UPDATED"), events);
+        assertEquals("COMPLETED", ((TaskChangeDTO) emitter.payloads.get(5)).getStatus());
+        assertEquals(2, meterRegistry.counter(TaskStreamService.DROPPED_COUNTER).count());
+    }
+
+    @Test
+    void testOnTaskChanged_StuckClientsHoldAtMostThePoolThreads() throws Exception {
+        slowClient = new CountDownLatch(1);
+        int clients = TaskStreamService.SENDER_THREADS + 10;
+        for (int i = 0; i < clients; i++) {
+            taskStreamService.subscribe(null, null);
+        }
+
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+        assertTrue(emitters.get(0).sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        long sending = emitters.stream().filter(emitter -> emitter.sending.getCount() == 0).count();
+        assertTrue(sending <= TaskStreamService.SENDER_THREADS, sending + " clients sent at once");
+
+        slowClient.countDown();
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(List.of("task:1:CREATED"), emitter.awaitEvents(1));
+        }
+    }
+
+    @Test
+    void testOnTaskChanged_StuckClientDoesNotHoldUpTheOthers() throws Exception {
+        slowClient = new CountDownLatch(1);
+        taskStreamService.subscribe(null, null);
+        slowClient = null;
+        taskStreamService.subscribe(null, null);
+
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+        assertTrue(emitters.get(0).sending.await(5, TimeUnit.SECONDS));
+        publish(null, snapshot(2L, "IT", null, TaskStatus.IDLE));
+
+        assertEquals(List.of("task:1:CREATED", "task:2:CREATED"), emitters.get(1).awaitEvents(2));
+        emitters.get(0).slowClient.countDown();
+    }
+
+    @Test
+    void testDropStuckClients_FreesTheirThreadsForTheOthers() throws Exception {
+        ReflectionTestUtils.setField(taskStreamService, "sendTimeout", Duration.ofMillis(50));
+        slowClient = new CountDownLatch(1);
+        for (int i = 0; i < TaskStreamService.SENDER_THREADS; i++) {
+            taskStreamService.subscribe(null, null);
+        }
+        slowClient = null;
+        taskStreamService.subscribe(null, null);
+        RecordingEmitter healthy = emitters.get(emitters.size() - 1);
+
+        // every sender thread is stuck on a client that stopped reading
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+        for (RecordingEmitter emitter : emitters.subList(0, TaskStreamService.SENDER_THREADS)) {
+            assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        }
+        Thread.sleep(100);
+
+        taskStreamService.dropStuckClients();
+
+        assertEquals(List.of("task:1:CREATED"), healthy.awaitEvents(1));
+        assertEquals(1, taskStreamService.subscriberCount());
+        for (RecordingEmitter emitter : emitters.subList(0, TaskStreamService.SENDER_THREADS)) {
+            assertTrue(emitter.failed.await(5, TimeUnit.SECONDS));
+        }
+
+        publish(null, snapshot(2L, "IT", null, TaskStatus.IDLE));
+        assertEquals(List.of("task:1:CREATED", "task:2:CREATED"), healthy.awaitEvents(2));
+    }
+
+    @Test
+    void testDropStuckClients_KeepsClientsThatAreReading() throws Exception {
+        ReflectionTestUtils.setField(taskStreamService, "sendTimeout", Duration.ofMillis(50));
+        taskStreamService.subscribe(null, null);
+
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+        assertEquals(List.of("task:1:CREATED"), emitters.get(0).awaitEvents(1));
+        Thread.sleep(100);
+
+        taskStreamService.dropStuckClients();
+
+        assertEquals(1, taskStreamService.subscriberCount());
+    }
+
+    @Test
+    void testSubscribe_LimitsSubscribers() {
+        ReflectionTestUtils.setField(taskStreamService, "maxSubscribers", 1);
+
+        assertTrue(taskStreamService.subscribe(null, null).isPresent());
+        assertTrue(taskStreamService.subscribe(null, null).isEmpty());
+        assertEquals(1, taskStreamService.subscriberCount());
+    }
+
+    @Test
+    void testOnTaskChanged_DisconnectedClientIsRemoved() throws Exception {
+        failingClient = true;
+        taskStreamService.subscribe(null, null);
+
+        publish(null, snapshot(1L, "IT", null, TaskStatus.IDLE));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (taskStreamService.subscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, taskStreamService.subscriberCount());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch slowClient;
+        private final boolean failing;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final List<String> events = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+        private final CountDownLatch failed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch slowClient, boolean failing) {
+            this.slowClient = slowClient;
+            this.failing = failing;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+
+            StringBuilder text = new StringBuilder();
+            Object payload = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String string) {
+                    text.append(string);
+                } else {
+                    payload = part.getData();
+                }
+            }
+
+            // comments (the greeting and heartbeats) are not recorded
+            Matcher name = EVENT_NAME.matcher(text);
+            if (!name.find()) {
+                return;
+            }
+
+            sending.countDown();
+            if (slowClient != null) {
+                try {
+                    slowClient.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // what an interrupted socket write does: the channel is closed under it
+                    throw new IOException("Channel closed by interrupt", e);
+                }
+            }
+
+            String event = payload instanceof TaskChangeDTO change
+                    ? name.group(1) + ":" + change.getId() + ":" + change.getChange()
+                    : name.group(1) + ":" + payload;
+
+            synchronized (this) {
+                events.add(event);
+                payloads.add(payload);
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failed.countDown();
+            super.completeWithError(ex);
+        }
+
+        synchronized List<String> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            return new ArrayList<>(events);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package taskdb.taskmanager.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import static org.mockito.Mockito.*;
+
+public class TaskViewSyncServiceTest {
+
+    @Mock
+    private ChangeCounterService changeCounterService;
+
+    @Mock
+    private TaskCounterService taskCounterService;
+
+    @Mock
+    private TaskDeadlineService taskDeadlineService;
+
+    @InjectMocks
+    private TaskViewSyncService taskViewSyncService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testSync_RebuildsOnlyTheViewsThatAreBehind() {
+        when(changeCounterService.getOtherTaskChanges()).thenReturn(7L);
+        when(taskCounterService.isBehind(7L)).thenReturn(true);
+        when(taskDeadlineService.isBehind(7L)).thenReturn(false);
+
+        taskViewSyncService.sync();
+
+        verify(taskCounterService).rebuild();
+        verify(taskDeadlineService, never()).rebuild();
+    }
+
+    @Test
+    void testSync_NothingChangedElsewhere() {
+        when(changeCounterService.getOtherTaskChanges()).thenReturn(0L);
+
+        taskViewSyncService.sync();
+
+        verify(taskCounterService, never()).rebuild();
+        verify(taskDeadlineService, never()).rebuild();
+    }
+}